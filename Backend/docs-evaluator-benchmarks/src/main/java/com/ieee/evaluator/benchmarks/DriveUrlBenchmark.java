@@ -0,0 +1,58 @@
+package com.ieee.evaluator.benchmarks;
+
+import com.ieee.evaluator.service.SubmissionRowParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drive file ID extraction from the links students paste, run once per link cell on every sync.
+ * The mix covers each supported link shape plus links that carry no ID at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriveUrlBenchmark {
+
+    private static final int URLS = 1024;
+
+    private final String[] urls = new String[URLS];
+    private int next;
+
+    @Setup
+    public void createUrls() {
+        Random random = new Random(11);
+        for (int i = 0; i < URLS; i++) {
+            urls[i] = i % 8 == 7
+                    ? "https://example.com/not-a-drive-link/" + i
+                    : Fixtures.driveUrl(random, i % 3);
+        }
+    }
+
+    @Benchmark
+    public String extractIdFromUrl() {
+        next = (next + 1) & (URLS - 1);
+        return SubmissionRowParser.extractIdFromUrl(urls[next]);
+    }
+
+    @Benchmark
+    public void extractIdFromAllUrls(Blackhole blackhole) {
+        for (String url : urls) {
+            blackhole.consume(SubmissionRowParser.extractIdFromUrl(url));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ieee.evaluator.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic inputs shaped like real submissions: IEEE-style documents with numbered chapters,
+ * and Google Form response rows. Generated at setup from a fixed seed, so runs are comparable
+ * and no student files need to be checked in.
+ */
+final class Fixtures {
+
+    private static final String[] CHAPTERS = {
+            "Introduction", "Overall Description", "Specific Requirements", "Supporting Information", "Appendix"
+    };
+
+    private static final String[] WORDS = {
+            "system", "shall", "user", "requirement", "interface", "data", "module", "the", "provide", "response",
+            "within", "seconds", "teacher", "student", "submission", "report", "database", "secure", "access", "of"
+    };
+
+    private static final String[] DOC_TYPES = {"SRS", "SDD", "SPMP", "STD"};
+
+    private static final int LINES_PER_PAGE = 45;
+    private static final int WORDS_PER_LINE = 12;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Lines of a document of roughly {@code pages} pages, split evenly into the IEEE 830 chapters.
+     */
+    static List<String> documentLines(int pages) {
+        Random random = new Random(42);
+        int total = pages * LINES_PER_PAGE;
+        int perChapter = Math.max(1, total / CHAPTERS.length);
+        List<String> lines = new ArrayList<>(total + CHAPTERS.length);
+
+        for (int i = 0; i < total; i++) {
+            if (i % perChapter == 0 && i / perChapter < CHAPTERS.length) {
+                lines.add((i / perChapter + 1) + ". " + CHAPTERS[i / perChapter]);
+            }
+            StringBuilder line = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_LINE; w++) {
+                if (w > 0) line.append(' ');
+                line.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            lines.add(line.append('.').toString());
+        }
+        return lines;
+    }
+
+    static String documentText(int pages) {
+        return String.join("\n", documentLines(pages));
+    }
+
+    static byte[] txt(int pages) {
+        return documentText(pages).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] pdf(int pages) throws IOException {
+        List<String> lines = documentLines(pages);
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int from = 0; from < lines.size(); from += LINES_PER_PAGE) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 750);
+                    for (String line : lines.subList(from, Math.min(from + LINES_PER_PAGE, lines.size()))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    static byte[] docx(int pages) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String line : documentLines(pages)) {
+                document.createParagraph().createRun().setText(line);
+            }
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Form response rows: timestamp, name, section, team, then one Drive link per document type.
+     * About one cell in five is left empty, as when a team has not submitted that document yet.
+     */
+    static List<List<Object>> responseRows(int rows) {
+        Random random = new Random(7);
+        List<List<Object>> sheet = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<Object> row = new ArrayList<>(4 + DOC_TYPES.length);
+            row.add((1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/2026 "
+                    + random.nextInt(24) + ":" + String.format("%02d:%02d", random.nextInt(60), random.nextInt(60)));
+            row.add("Student " + i);
+            row.add("BSCS-" + (1 + random.nextInt(4)) + "A");
+            row.add("Team " + (1 + random.nextInt(40)));
+            for (int d = 0; d < DOC_TYPES.length; d++) {
+                row.add(random.nextInt(5) == 0 ? "" : driveUrl(random, random.nextInt(3)));
+            }
+            sheet.add(row);
+        }
+        return sheet;
+    }
+
+    static String[] docTypes() {
+        return DOC_TYPES.clone();
+    }
+
+    /**
+     * A Drive link in one of the shapes students paste: /d/ links, open?id= links and folder links.
+     */
+    static String driveUrl(Random random, int shape) {
+        String id = fileId(random);
+        return switch (shape) {
+            case 0 -> "https://docs.google.com/document/d/" + id + "/edit?usp=sharing";
+            case 1 -> "https://drive.google.com/open?id=" + id;
+            default -> "https://drive.google.com/drive/folders/" + id + "?usp=drive_link";
+        };
+    }
+
+    private static String fileId(Random random) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789_-";
+        StringBuilder id = new StringBuilder(33);
+        for (int i = 0; i < 33; i++) {
+            id.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.ieee.evaluator.benchmarks;
+
+import com.ieee.evaluator.model.DocumentChunk;
+import com.ieee.evaluator.service.EvaluationPrompts;
+import com.ieee.evaluator.service.SectionChunker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt building for one evaluation: the single-pass prompt, and for documents over the
+ * provider's input limit the section split plus the map and reduce prompts of
+ * ChunkedEvaluationPipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBenchmark {
+
+    // Default evaluator.ai.openai.max-input-chars
+    private static final int CHUNK_CHARS = 100_000;
+
+    @Param({"5", "50", "300"})
+    public int pages;
+
+    private final SectionChunker chunker = new SectionChunker();
+    private String text;
+    private List<DocumentChunk> chunks;
+    private List<String> notes;
+
+    @Setup(Level.Trial)
+    public void createDocument() {
+        text = Fixtures.documentText(pages);
+        chunks = chunker.split(text, CHUNK_CHARS);
+        notes = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            notes.add("- Strength: requirements are numbered\n- Weakness: no acceptance criteria for part " + (i + 1));
+        }
+    }
+
+    @Benchmark
+    public String analysisPrompt() {
+        return EvaluationPrompts.analysisPrompt(text);
+    }
+
+    @Benchmark
+    public List<DocumentChunk> splitSections() {
+        return chunker.split(text, CHUNK_CHARS);
+    }
+
+    @Benchmark
+    public List<String> sectionPrompts() {
+        List<String> prompts = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            prompts.add(EvaluationPrompts.sectionPrompt(chunks.get(i), i + 1, chunks.size()));
+        }
+        return prompts;
+    }
+
+    @Benchmark
+    public String mergePrompt() {
+        return EvaluationPrompts.mergePrompt(chunks, notes);
+    }
+}
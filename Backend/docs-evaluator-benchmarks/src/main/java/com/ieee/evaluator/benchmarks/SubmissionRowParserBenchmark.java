@@ -0,0 +1,69 @@
+package com.ieee.evaluator.benchmarks;
+
+import com.ieee.evaluator.model.DeliverableConfig;
+import com.ieee.evaluator.model.Submission;
+import com.ieee.evaluator.service.SubmissionRowParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row processing of a submission sync: every form response row turned into Submissions,
+ * as SubmissionSyncService does after reading the responses range. Sheets and database
+ * time are left out; this is the CPU and allocation cost per sheet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubmissionRowParserBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private List<List<Object>> sheet;
+    private SubmissionRowParser parser;
+
+    @Setup(Level.Trial)
+    public void createSheet() {
+        sheet = Fixtures.responseRows(rows);
+
+        // Same layout as the form: timestamp, name, section, team, then one link column per document
+        Map<String, Integer> docColumns = new LinkedHashMap<>();
+        Map<String, DeliverableConfig> configMap = new HashMap<>();
+        String[] docTypes = Fixtures.docTypes();
+        for (int i = 0; i < docTypes.length; i++) {
+            docColumns.put(docTypes[i], 4 + i);
+            configMap.put(docTypes[i], new DeliverableConfig(docTypes[i], LocalDateTime.of(2026, 6, 15, 23, 59)));
+        }
+        parser = new SubmissionRowParser(0, 1, 2, 3, docColumns, configMap);
+    }
+
+    @Benchmark
+    public Map<String, Submission> parseSheet() {
+        Map<String, Submission> submissionMap = new HashMap<>();
+        for (int i = 0; i < sheet.size(); i++) {
+            // Row 1 is the header, so data rows start at 2 as in the sync
+            parser.parseRow(sheet.get(i), i + 2, submissionMap);
+        }
+        return submissionMap;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ieee.evaluator.benchmarks;
+
+import com.ieee.evaluator.model.ExtractedText;
+import com.ieee.evaluator.service.DocumentTextReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tika extraction of downloaded submissions, i.e. the work behind a cache miss in
+ * GoogleDocsService.extractText once the bytes are local. {@code maxChars} -1 reads the whole
+ * file; 100000 is the budget of a provider that does not chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextExtractionBenchmark {
+
+    @Param({"pdf", "docx", "txt"})
+    public String format;
+
+    @Param({"5", "50", "300"})
+    public int pages;
+
+    @Param({"-1", "100000"})
+    public int maxChars;
+
+    private final DocumentTextReader reader = new DocumentTextReader();
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void createFixture() throws Exception {
+        content = switch (format) {
+            case "pdf" -> Fixtures.pdf(pages);
+            case "docx" -> Fixtures.docx(pages);
+            default -> Fixtures.txt(pages);
+        };
+    }
+
+    @Benchmark
+    public ExtractedText extractWithTika() throws Exception {
+        return reader.extractWithTika(new ByteArrayInputStream(content), maxChars);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ieee.evaluator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class AiHttpClientConfig {
+
+    /**
+     * One outbound client for every AI provider. The JDK client keeps a keep-alive connection pool
+     * per host and negotiates HTTP/2 where the server supports it, so concurrent evaluations
+     * multiplex over a few warm TLS connections instead of handshaking per request.
+     */
+    @Bean
+    public HttpClient aiJdkHttpClient(@Value("${evaluator.ai.http.connect-timeout-ms:10000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+}
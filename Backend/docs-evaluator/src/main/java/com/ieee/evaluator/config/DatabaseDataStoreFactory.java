@@ -0,0 +1,99 @@
+package com.ieee.evaluator.config;
+
+import com.google.api.client.util.IOUtils;
+import com.google.api.client.util.store.AbstractDataStore;
+import com.google.api.client.util.store.AbstractDataStoreFactory;
+import com.google.api.client.util.store.DataStore;
+import com.ieee.evaluator.model.GoogleTokenEntry;
+import com.ieee.evaluator.repository.GoogleTokenRepository;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Google client library data store backed by the google_token_store table instead of a local
+ * directory. The OAuth flow writes refreshed tokens through it, so a refresh on one instance is
+ * seen by all of them.
+ */
+public class DatabaseDataStoreFactory extends AbstractDataStoreFactory {
+
+    private final GoogleTokenRepository repository;
+
+    public DatabaseDataStoreFactory(GoogleTokenRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    protected <V extends Serializable> DataStore<V> createDataStore(String id) {
+        return new DatabaseDataStore<>(this, id);
+    }
+
+    private class DatabaseDataStore<V extends Serializable> extends AbstractDataStore<V> {
+
+        DatabaseDataStore(DatabaseDataStoreFactory factory, String id) {
+            super(factory, id);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            Set<String> keys = new LinkedHashSet<>();
+            repository.findByStoreId(getId()).forEach(entry -> keys.add(entry.getEntryName()));
+            return keys;
+        }
+
+        @Override
+        public Collection<V> values() throws IOException {
+            List<V> values = new ArrayList<>();
+            for (GoogleTokenEntry entry : repository.findByStoreId(getId())) {
+                values.add(IOUtils.<V>deserialize(entry.getValue()));
+            }
+            return values;
+        }
+
+        @Override
+        public V get(String key) throws IOException {
+            if (key == null) {
+                return null;
+            }
+            Optional<GoogleTokenEntry> entry = repository.findById(entryKey(key));
+            return entry.isPresent() ? IOUtils.<V>deserialize(entry.get().getValue()) : null;
+        }
+
+        @Override
+        public DataStore<V> set(String key, V value) throws IOException {
+            GoogleTokenEntry entry = new GoogleTokenEntry();
+            entry.setEntryKey(entryKey(key));
+            entry.setStoreId(getId());
+            entry.setEntryName(key);
+            entry.setValue(IOUtils.serialize(value));
+            entry.setUpdatedAt(LocalDateTime.now());
+            repository.save(entry);
+            return this;
+        }
+
+        @Override
+        public DataStore<V> clear() {
+            repository.deleteByStoreId(getId());
+            return this;
+        }
+
+        @Override
+        public DataStore<V> delete(String key) {
+            if (key != null) {
+                repository.deleteById(entryKey(key));
+            }
+            return this;
+        }
+
+        private String entryKey(String key) {
+            return getId() + "/" + key;
+        }
+    }
+}
@@ -1,64 +1,123 @@
 package com.ieee.evaluator.config;
 
 import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.StoredCredential;
 import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
 import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.store.DataStore;
+import com.google.api.client.util.store.DataStoreFactory;
 import com.google.api.client.util.store.FileDataStoreFactory;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.DriveScopes;
+import com.ieee.evaluator.repository.GoogleTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.security.GeneralSecurityException;
 import java.util.Collections;
 
 @Configuration
+@Slf4j
 public class GoogleDriveConfig {
 
     private static final String TOKENS_DIRECTORY_PATH = "tokens";
+    private static final String CREDENTIAL_USER = "user";
 
+    private final NetHttpTransport httpTransport;
+
+    public GoogleDriveConfig(NetHttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+    }
+
+    /**
+     * Where the Drive OAuth tokens live: "database" (shared by every instance, the default) or
+     * "file" (the local tokens directory, for a single developer machine).
+     */
     @Bean
-    public Drive driveService() throws IOException, GeneralSecurityException {
-        return new Drive.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                GsonFactory.getDefaultInstance(),
-                getCredentials())
-                .setApplicationName("IEEE Docs Evaluator")
-                .build();
+    public DataStoreFactory googleTokenStore(GoogleTokenRepository tokenRepository,
+                                             @Value("${evaluator.google.token-store:database}") String tokenStore) throws IOException {
+        java.io.File tokensDirectory = new java.io.File(TOKENS_DIRECTORY_PATH);
+        if ("file".equalsIgnoreCase(tokenStore)) {
+            return new FileDataStoreFactory(tokensDirectory);
+        }
+
+        DatabaseDataStoreFactory databaseStore = new DatabaseDataStoreFactory(tokenRepository);
+        if (tokensDirectory.isDirectory()) {
+            importLocalTokens(tokensDirectory, databaseStore);
+        }
+        return databaseStore;
     }
 
-    private Credential getCredentials() throws IOException, GeneralSecurityException {
+    @Bean
+    public Credential googleCredential(DataStoreFactory googleTokenStore,
+                                       @Value("${evaluator.google.interactive-auth:true}") boolean interactiveAuth) throws IOException {
         // Ensure you have renamed your Desktop OAuth JSON to 'client_secret.json'
         InputStreamReader reader = new InputStreamReader(
                 new ClassPathResource("client_secret.json").getInputStream());
-        
+
         GoogleClientSecrets clientSecrets = GoogleClientSecrets.load(
                 GsonFactory.getDefaultInstance(), reader);
 
-        FileDataStoreFactory dataStoreFactory = new FileDataStoreFactory(new java.io.File(TOKENS_DIRECTORY_PATH));
-
         GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
+                httpTransport,
                 GsonFactory.getDefaultInstance(),
-                clientSecrets, 
+                clientSecrets,
                 Collections.singleton(DriveScopes.DRIVE)) // Full access to 15GB storage
-                .setDataStoreFactory(dataStoreFactory)
+                .setDataStoreFactory(googleTokenStore)
                 .setAccessType("offline")
                 .build();
 
+        // Scaled-out nodes cannot open a browser; they must find the token another node stored
+        if (!interactiveAuth) {
+            Credential stored = flow.loadCredential(CREDENTIAL_USER);
+            if (stored == null || stored.getRefreshToken() == null) {
+                throw new IllegalStateException("No stored Google Drive credential. Authorize once on an instance with "
+                        + "evaluator.google.interactive-auth=true; the token is then shared through the token store.");
+            }
+            return stored;
+        }
+
         LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
-        return new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
+        return new AuthorizationCodeInstalledApp(flow, receiver).authorize(CREDENTIAL_USER);
     }
 
     @Bean
-    public Credential googleCredential() throws IOException, GeneralSecurityException {
-        return getCredentials();
+    public Drive driveService(Credential googleCredential) {
+        return new Drive.Builder(
+                httpTransport,
+                GsonFactory.getDefaultInstance(),
+                googleCredential)
+                .setApplicationName("IEEE Docs Evaluator")
+                .build();
+    }
+
+    /**
+     * One-time move of a token authorized before the database store existed, so switching stores
+     * does not require signing in again.
+     */
+    private static void importLocalTokens(java.io.File tokensDirectory, DatabaseDataStoreFactory databaseStore) {
+        try {
+            DataStore<StoredCredential> target = StoredCredential.getDefaultDataStore(databaseStore);
+            if (!target.isEmpty()) {
+                return;
+            }
+            DataStore<StoredCredential> source = StoredCredential.getDefaultDataStore(new FileDataStoreFactory(tokensDirectory));
+            for (String key : source.keySet()) {
+                target.set(key, source.get(key));
+            }
+            if (!source.isEmpty()) {
+                log.info("Imported {} Google credential(s) from the local tokens directory", source.size());
+            }
+        } catch (IOException e) {
+            log.warn("Could not import local Google tokens: {}", e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
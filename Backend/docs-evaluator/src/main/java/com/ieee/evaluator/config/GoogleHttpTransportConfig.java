@@ -0,0 +1,22 @@
+package com.ieee.evaluator.config;
+
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+@Configuration
+public class GoogleHttpTransportConfig {
+
+    /**
+     * One trusted transport for every Google API client. Building it loads Google's trust store,
+     * so it is done once at startup instead of per request. NetHttpTransport is thread-safe.
+     */
+    @Bean
+    public NetHttpTransport googleHttpTransport() throws IOException, GeneralSecurityException {
+        return GoogleNetHttpTransport.newTrustedTransport();
+    }
+}
@@ -1,7 +1,7 @@
 package com.ieee.evaluator.config;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.SheetsScopes;
@@ -17,14 +17,16 @@ import java.util.Collections;
 public class GoogleSheetsConfig {
 
     @Bean
-    public Sheets sheetsService() throws IOException, GeneralSecurityException {
+    public Sheets sheetsService(NetHttpTransport httpTransport) throws IOException, GeneralSecurityException {
         // Load the secured JSON credentials from the resources folder
         GoogleCredential credential = GoogleCredential.fromStream(
-                new ClassPathResource("google-sheets-credentials.json").getInputStream()
+                new ClassPathResource("google-sheets-credentials.json").getInputStream(),
+                httpTransport,
+                GsonFactory.getDefaultInstance()
         ).createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS_READONLY));
 
         return new Sheets.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
+                httpTransport,
                 GsonFactory.getDefaultInstance(),
                 credential)
                 .setApplicationName("IEEE Docs Evaluator")
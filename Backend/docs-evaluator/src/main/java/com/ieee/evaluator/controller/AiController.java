@@ -1,13 +1,24 @@
 package com.ieee.evaluator.controller;
 
 import com.ieee.evaluator.model.EvaluationHistory;
+import com.ieee.evaluator.model.SubmissionLabel;
 import com.ieee.evaluator.repository.EvaluationHistoryRepository;
+import com.ieee.evaluator.service.AiHttpClient;
 import com.ieee.evaluator.service.AiService;
+import com.ieee.evaluator.service.EvaluationHistoryQueryService;
+import com.ieee.evaluator.service.EvaluationHistoryQueryService.HistoryFilter;
+import com.ieee.evaluator.service.EvaluatorMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -16,10 +27,35 @@ public class AiController {
 
     private final AiService aiService;
     private final EvaluationHistoryRepository historyRepository;
+    private final EvaluationHistoryQueryService historyQueryService;
+    private final AiHttpClient aiHttpClient;
+    private final long emitterTimeoutMs;
+    // Propagating, so the stream's Drive and model spans stay in the request's trace
+    private final ExecutorService streamExecutor = EvaluatorMetrics.propagating(Executors.newVirtualThreadPerTaskExecutor());
 
-    public AiController(AiService aiService, EvaluationHistoryRepository historyRepository) {
+    public AiController(AiService aiService, EvaluationHistoryRepository historyRepository,
+                        EvaluationHistoryQueryService historyQueryService, AiHttpClient aiHttpClient,
+                        @Value("${evaluator.ai.stream.emitter-timeout-ms:600000}") long emitterTimeoutMs) {
         this.aiService = aiService;
         this.historyRepository = historyRepository;
+        this.historyQueryService = historyQueryService;
+        this.aiHttpClient = aiHttpClient;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    @GetMapping("/http/stats")
+    public ResponseEntity<?> getHttpStats() {
+        return ResponseEntity.ok(aiHttpClient.getStats());
+    }
+
+    @GetMapping("/routing/stats")
+    public ResponseEntity<?> getRoutingStats() {
+        return ResponseEntity.ok(aiService.getRoutingStats());
+    }
+
+    @GetMapping("/analyze/in-flight")
+    public ResponseEntity<?> getInFlightStats() {
+        return ResponseEntity.ok(aiService.getCoalescingStats());
     }
 
     @PostMapping("/analyze")
@@ -33,7 +69,9 @@ public class AiController {
                 return ResponseEntity.badRequest().body("Missing fileId, fileName, or model");
             }
             
-            String result = aiService.analyzeDocument(fileId, fileName, model);
+            // "force" skips the result cache and re-runs the model on unchanged text
+            boolean force = Boolean.parseBoolean(payload.get("force"));
+            String result = aiService.analyzeDocument(fileId, fileName, model, force);
             return ResponseEntity.ok(Map.of("analysis", result));
         } catch (Exception e) {
             e.printStackTrace();
@@ -42,10 +80,68 @@ public class AiController {
         }
     }
 
+    /**
+     * Streams the report over Server-Sent Events: "token" events carry pieces of the text as the
+     * model writes them, then a single "done" (full analysis) or "failed" (error) event closes it.
+     */
+    @GetMapping(value = "/analyze/stream", produces = "text/event-stream")
+    public SseEmitter analyzeFileStream(@RequestParam String fileId,
+                                        @RequestParam String fileName,
+                                        @RequestParam String model,
+                                        @RequestParam(defaultValue = "false") boolean force) {
+        // Each provider call is bounded by its own total timeout; this caps the connection as a whole
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+
+        streamExecutor.execute(() -> {
+            // If the browser goes away we keep going so the finished report is still saved
+            boolean[] clientGone = {false};
+            try {
+                String result = aiService.analyzeDocumentStreaming(fileId, fileName, model, force, token -> {
+                    if (clientGone[0]) return;
+                    try {
+                        emitter.send(SseEmitter.event().name("token").data(Map.of("text", token)));
+                    } catch (Exception e) {
+                        clientGone[0] = true;
+                    }
+                });
+                if (!clientGone[0]) {
+                    emitter.send(SseEmitter.event().name("done").data(Map.of("analysis", result)));
+                    emitter.complete();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                if (!clientGone[0]) {
+                    try {
+                        emitter.send(SseEmitter.event().name("failed").data(Map.of("error", "Analysis failed: " + e.getMessage())));
+                        emitter.complete();
+                    } catch (Exception sendFailure) {
+                        emitter.completeWithError(sendFailure);
+                    }
+                }
+            }
+        });
+
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdownStreams() {
+        streamExecutor.shutdownNow();
+    }
+
     @GetMapping("/history")
-    public ResponseEntity<?> getHistory() {
+    public ResponseEntity<?> getHistory(@RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "50") int limit,
+                                        @RequestParam(required = false) String status,
+                                        @RequestParam(required = false) String docType,
+                                        @RequestParam(required = false) String section,
+                                        @RequestParam(required = false) String teamCode,
+                                        @RequestParam(required = false) String q) {
         try {
-            return ResponseEntity.ok(historyRepository.findAllByOrderByEvaluatedAtDesc());
+            HistoryFilter filter = new HistoryFilter(status, docType, section, teamCode, q);
+            return ResponseEntity.ok(historyQueryService.getPage(cursor, limit, filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -53,6 +149,36 @@ public class AiController {
         }
     }
 
+    @GetMapping("/history/facets")
+    public ResponseEntity<?> getHistoryFacets() {
+        try {
+            return ResponseEntity.ok(historyQueryService.getFacets());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve history filters.");
+        }
+    }
+
+    @GetMapping("/history/file-ids")
+    public ResponseEntity<?> getEvaluatedFileIds() {
+        try {
+            return ResponseEntity.ok(historyQueryService.getEvaluatedFileIds());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve evaluated files.");
+        }
+    }
+
+    @GetMapping("/history/{id}")
+    public ResponseEntity<?> getHistoryItem(@PathVariable Long id) {
+        return historyRepository.findById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Evaluation record not found")));
+    }
+
     @PutMapping("/history/{id}")
     public ResponseEntity<?> updateHistoryItem(@PathVariable Long id, @RequestBody Map<String, String> payload) {
         try {
@@ -63,6 +189,12 @@ public class AiController {
             if (newResult == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "No evaluation result provided"));
             }
+
+            // The version the teacher opened; a mismatch means the report was re-evaluated meanwhile
+            String expectedVersion = payload.get("version");
+            if (expectedVersion != null && !expectedVersion.equals(String.valueOf(history.getVersion()))) {
+                return conflict();
+            }
             
             history.setEvaluationResult(newResult);
 
@@ -70,9 +202,11 @@ public class AiController {
                 history.setTeacherFeedback(payload.get("teacherFeedback"));
             }
 
-            historyRepository.save(history);
+            EvaluationHistory saved = historyRepository.saveAndFlush(history);
             
-            return ResponseEntity.ok(Map.of("message", "Evaluation updated successfully"));
+            return ResponseEntity.ok(Map.of("message", "Evaluation updated successfully", "version", saved.getVersion()));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -87,9 +221,11 @@ public class AiController {
                 .orElseThrow(() -> new RuntimeException("Evaluation record not found"));
             
             history.setIsSent(true);
-            historyRepository.save(history);
+            EvaluationHistory saved = historyRepository.saveAndFlush(history);
             
-            return ResponseEntity.ok(Map.of("message", "Report sent to student successfully"));
+            return ResponseEntity.ok(Map.of("message", "Report sent to student successfully", "version", saved.getVersion()));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -101,11 +237,17 @@ public class AiController {
     public ResponseEntity<?> getStudentReports(@RequestParam String groupCode) {
         try {
             return ResponseEntity.ok(historyRepository
-                .findByIsSentTrueAndFileNameContainingIgnoreCaseOrderByEvaluatedAtDesc(groupCode));
+                .findByTeamCodeAndIsSentTrueOrderByEvaluatedAtDesc(SubmissionLabel.normalizeTeamCode(groupCode)));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to load student reports."));
         }
     }
-}
\ No newline at end of file
+
+    // A re-evaluation replaced the report between the teacher loading and saving it
+    private static ResponseEntity<?> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "This evaluation was modified by someone else. Reload it and try again."));
+    }
+}
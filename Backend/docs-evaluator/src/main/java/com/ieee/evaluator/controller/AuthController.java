@@ -39,4 +39,20 @@ public class AuthController {
                     .body("Error connecting to verification server: " + e.getMessage());
         }
     }
+
+    @GetMapping("/allowlist/status")
+    public ResponseEntity<?> getAllowlistStatus() {
+        return ResponseEntity.ok(allowlistService.getStatus());
+    }
+
+    @PostMapping("/allowlist/refresh")
+    public ResponseEntity<?> refreshAllowlist() {
+        try {
+            return ResponseEntity.ok(allowlistService.refresh());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Allowlist refresh failed: " + e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.ieee.evaluator.controller;
+
+import com.ieee.evaluator.model.BatchJob;
+import com.ieee.evaluator.service.BatchEvaluationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ai/batch")
+@CrossOrigin(origins = "http://localhost:5173")
+public class BatchEvaluationController {
+
+    private final BatchEvaluationService batchService;
+
+    public BatchEvaluationController(BatchEvaluationService batchService) {
+        this.batchService = batchService;
+    }
+
+    @PostMapping
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<?> submitBatch(@RequestBody Map<String, Object> payload) {
+        try {
+            String model = (String) payload.get("model");
+            String docType = (String) payload.get("docType");
+            List<String> fileIds = (List<String>) payload.get("fileIds");
+
+            if (model == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Missing model"));
+            }
+
+            BatchJob job = batchService.submit(model, docType, fileIds);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Batch submission failed: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> listBatches() {
+        return ResponseEntity.ok(batchService.getJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getBatchProgress(@PathVariable String jobId) {
+        return batchService.getJob(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Batch job not found")));
+    }
+
+    @GetMapping("/{jobId}/results")
+    public ResponseEntity<?> getBatchResults(@PathVariable String jobId) {
+        return batchService.getResults(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Batch job not found")));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<?> cancelBatch(@PathVariable String jobId) {
+        return batchService.cancel(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Batch job not found")));
+    }
+}
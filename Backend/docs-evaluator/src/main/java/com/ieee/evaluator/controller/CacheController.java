@@ -0,0 +1,71 @@
+package com.ieee.evaluator.controller;
+
+import com.ieee.evaluator.service.EvaluationResultCache;
+import com.ieee.evaluator.service.ExtractedTextCache;
+import com.ieee.evaluator.service.RawContentStore;
+import com.ieee.evaluator.service.SheetRangeCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:5173")
+public class CacheController {
+
+    private final ExtractedTextCache textCache;
+    private final SheetRangeCache sheetRangeCache;
+    private final EvaluationResultCache resultCache;
+    private final RawContentStore rawStore;
+
+    public CacheController(ExtractedTextCache textCache, SheetRangeCache sheetRangeCache, EvaluationResultCache resultCache,
+                           RawContentStore rawStore) {
+        this.textCache = textCache;
+        this.sheetRangeCache = sheetRangeCache;
+        this.resultCache = resultCache;
+        this.rawStore = rawStore;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("extractedText", textCache.getStats());
+        stats.put("sheetRanges", sheetRangeCache.getStats());
+        stats.put("evaluationResults", resultCache.getStats());
+        stats.put("rawContent", rawStore.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/extracted-text/clear")
+    public ResponseEntity<?> clearExtractedText() {
+        textCache.clear();
+        return ResponseEntity.ok(Map.of("message", "Extracted text cache cleared"));
+    }
+
+    @PostMapping("/raw-content/clear")
+    public ResponseEntity<?> clearRawContent() {
+        rawStore.clear();
+        return ResponseEntity.ok(Map.of("message", "Raw content store cleared"));
+    }
+
+    @PostMapping("/evaluation-results/clear")
+    public ResponseEntity<?> clearEvaluationResults() {
+        try {
+            resultCache.clear();
+            return ResponseEntity.ok(Map.of("message", "Evaluation result cache cleared"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body(Map.of("error", "Clear failed: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/sheets/invalidate")
+    public ResponseEntity<?> invalidateSheetRanges(@RequestParam(required = false) String range) {
+        sheetRangeCache.invalidate(range);
+        return ResponseEntity.ok(Map.of("message", range == null
+                ? "All cached sheet ranges invalidated"
+                : "Cached sheet range " + range + " invalidated"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.ieee.evaluator.controller;
+
+import com.ieee.evaluator.model.EvaluationJob;
+import com.ieee.evaluator.service.AiService;
+import com.ieee.evaluator.service.EvaluationJobQueue;
+import com.ieee.evaluator.service.EvaluationJobWorker;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ai/jobs")
+@CrossOrigin(origins = "http://localhost:5173")
+public class EvaluationJobController {
+
+    private final AiService aiService;
+    private final EvaluationJobQueue jobQueue;
+    private final EvaluationJobWorker jobWorker;
+
+    public EvaluationJobController(AiService aiService, EvaluationJobQueue jobQueue, EvaluationJobWorker jobWorker) {
+        this.aiService = aiService;
+        this.jobQueue = jobQueue;
+        this.jobWorker = jobWorker;
+    }
+
+    /**
+     * Queues a single evaluation; unlike /api/ai/analyze it is not tied to this request and is
+     * retried if it fails or the server restarts. Poll GET /api/ai/jobs/{id} for the outcome.
+     */
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody Map<String, String> payload) {
+        try {
+            String fileId = payload.get("fileId");
+            String fileName = payload.get("fileName");
+            String model = payload.get("model");
+
+            if (fileId == null || model == null || fileName == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Missing fileId, fileName, or model"));
+            }
+            if (aiService.resolveProvider(model) == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Model provider '" + model + "' is not supported."));
+            }
+
+            boolean force = Boolean.parseBoolean(payload.get("force"));
+            EvaluationJob job = jobQueue.enqueueAll(List.of(jobQueue.newJob(null, fileId, fileName, model, force))).get(0);
+            jobWorker.wakeUp();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Job submission failed: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        return jobQueue.find(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Evaluation job not found")));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        try {
+            return ResponseEntity.ok(jobWorker.getStats());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to load job stats."));
+        }
+    }
+}
@@ -27,6 +27,20 @@ public class SettingsController {
         return ResponseEntity.ok(repository.findAll());
     }
 
+    @GetMapping("/cache/status")
+    public ResponseEntity<?> getCacheStatus() {
+        return ResponseEntity.ok(configService.getStatus());
+    }
+
+    @PostMapping("/cache/reload")
+    public ResponseEntity<?> reloadCache() {
+        try {
+            return ResponseEntity.ok(configService.reload());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Reload failed: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/update")
     public ResponseEntity<?> updateSetting(@RequestBody Map<String, String> payload) {
         String key = payload.get("key");
@@ -1,15 +1,22 @@
 package com.ieee.evaluator.controller;
 
 import com.ieee.evaluator.model.DriveFile;
+import com.ieee.evaluator.model.Submission;
+import com.ieee.evaluator.service.SubmissionPrefetcher;
+import com.ieee.evaluator.service.SubmissionQueryService;
 import com.ieee.evaluator.service.SubmissionSyncService;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/submissions")
@@ -17,15 +24,49 @@ import java.util.List;
 public class SubmissionController {
 
     private final SubmissionSyncService syncService;
+    private final SubmissionQueryService queryService;
+    private final SubmissionPrefetcher prefetcher;
 
-    public SubmissionController(SubmissionSyncService syncService) {
+    public SubmissionController(SubmissionSyncService syncService, SubmissionQueryService queryService,
+                                SubmissionPrefetcher prefetcher) {
         this.syncService = syncService;
+        this.queryService = queryService;
+        this.prefetcher = prefetcher;
+    }
+
+    @GetMapping("/prefetch/stats")
+    public ResponseEntity<?> getPrefetchStats() {
+        return ResponseEntity.ok(prefetcher.getStats());
+    }
+
+    @GetMapping
+    public ResponseEntity<?> searchSubmissions(@RequestParam(required = false) String docType,
+                                               @RequestParam(required = false) String section,
+                                               @RequestParam(required = false) String teamCode,
+                                               @RequestParam(required = false) Boolean late,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "50") int size) {
+        try {
+            Page<Submission> result = queryService.search(docType, section, teamCode, late, page, size);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("content", result.getContent());
+            body.put("page", result.getNumber());
+            body.put("size", result.getSize());
+            body.put("totalElements", result.getTotalElements());
+            body.put("totalPages", result.getTotalPages());
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to query submissions: " + e.getMessage());
+        }
     }
 
     @GetMapping("/sync")
-    public ResponseEntity<?> syncSubmissions() {
+    public ResponseEntity<?> syncSubmissions(@RequestParam(defaultValue = "false") boolean full) {
         try {
-            List<DriveFile> submissions = syncService.getLatestSubmissions();
+            // Incremental by default; ?full=true re-reads the whole responses range
+            List<DriveFile> submissions = syncService.syncSubmissions(full);
             return ResponseEntity.ok(submissions);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,24 @@
+package com.ieee.evaluator.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class BatchJob {
+    private String id;
+    private String model;
+    private String docType;   // "SRS", "SDD", ... or null for every deliverable
+    private String status;   // RUNNING, COMPLETED, CANCELLED
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private long total;
+    private long succeeded;
+    private long failed;   // includes cancelled files
+
+    public long getPending() {
+        return total - succeeded - failed;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ieee.evaluator.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class BatchJobItem {
+    private Long jobId;
+    private String fileId;
+    private String fileName;
+    private String status;   // QUEUED, RUNNING, RETRYING, SUCCEEDED, FAILED
+    private int attempts;
+    private String result;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public BatchJobItem(String fileId, String fileName) {
+        this.fileId = fileId;
+        this.fileName = fileName;
+        this.status = "QUEUED";
+    }
+}
@@ -0,0 +1,13 @@
+package com.ieee.evaluator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DocumentChunk {
+    private String title;   // Section heading(s) covered, e.g. "2 Overall Description"
+    private String text;
+}
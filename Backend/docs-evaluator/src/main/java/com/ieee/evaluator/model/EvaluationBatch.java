@@ -0,0 +1,30 @@
+package com.ieee.evaluator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk evaluation request; its files are {@link EvaluationJob} rows sharing the batch id.
+ */
+@Data
+@Entity
+@Table(name = "evaluation_batch")
+public class EvaluationBatch {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String model;
+
+    private String docType;
+
+    // RUNNING or CANCELLED; completion is derived from the jobs
+    private String status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime cancelledAt;
+}
@@ -6,7 +6,11 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "evaluation_history")
+@Table(name = "evaluation_history", indexes = {
+        @Index(name = "idx_history_team_sent_evaluated", columnList = "team_code, is_sent, evaluated_at"),
+        @Index(name = "idx_history_file_id", columnList = "file_id"),
+        @Index(name = "idx_history_evaluated_at_id", columnList = "evaluated_at, id")
+})
 public class EvaluationHistory {
 
     @Id
@@ -16,6 +20,13 @@ public class EvaluationHistory {
     private String fileId;
     
     private String fileName;
+
+    // Normalized copies of what fileName encodes, so lookups can use an index instead of LIKE '%x%'
+    private String teamCode;
+
+    private String section;
+
+    private String docType;
     
     private String modelUsed;
 
@@ -29,4 +40,13 @@ public class EvaluationHistory {
 
     @Column(name = "is_sent", columnDefinition = "boolean default false")
     private Boolean isSent = false;
+
+    // True when the document was longer than the provider's input budget and only its start was evaluated
+    @Column(name = "text_truncated", columnDefinition = "boolean default false")
+    private Boolean textTruncated = false;
+
+    // Optimistic lock: a re-evaluation and a teacher edit can no longer silently overwrite each other
+    @Version
+    @Column(columnDefinition = "bigint default 0", nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.ieee.evaluator.model;
+
+/**
+ * Number of history rows sharing one section / team / document type / sent combination; the
+ * report filters and counts are built from these instead of from the rows loaded so far.
+ */
+public interface EvaluationHistoryFacet {
+    String getSection();
+    String getTeamCode();
+    String getDocType();
+    Boolean getIsSent();
+    Long getTotal();
+}
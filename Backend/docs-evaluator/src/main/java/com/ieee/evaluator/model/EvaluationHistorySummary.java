@@ -0,0 +1,20 @@
+package com.ieee.evaluator.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of an {@link EvaluationHistory} row without the large TEXT columns
+ * (evaluationResult, teacherFeedback); fetch the full row by id when it is opened.
+ */
+public interface EvaluationHistorySummary {
+    Long getId();
+    String getFileId();
+    String getFileName();
+    String getModelUsed();
+    LocalDateTime getEvaluatedAt();
+    Boolean getIsSent();
+    Boolean getTextTruncated();
+    String getTeamCode();
+    String getSection();
+    String getDocType();
+}
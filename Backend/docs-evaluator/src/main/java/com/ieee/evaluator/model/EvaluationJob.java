@@ -0,0 +1,73 @@
+package com.ieee.evaluator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One evaluation of one file, persisted so it survives restarts and can be picked up by any
+ * backend instance. A worker owns a RUNNING job only while its lease has not expired.
+ */
+@Data
+@Entity
+@Table(name = "evaluation_job", indexes = {
+        @Index(name = "idx_job_status_available", columnList = "status, available_at"),
+        @Index(name = "idx_job_status_lease", columnList = "status, lease_expires_at"),
+        @Index(name = "idx_job_batch_id", columnList = "batch_id")
+})
+public class EvaluationJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Set for jobs created by a bulk evaluation, null for single submissions
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    private String fileId;
+
+    private String fileName;
+
+    private String model;
+
+    @Column(columnDefinition = "boolean default false")
+    private boolean force;
+
+    @Column(length = 16, nullable = false)
+    private String status;
+
+    @Column(columnDefinition = "integer default 0")
+    private int attempts;
+
+    private int maxAttempts;
+
+    // PENDING jobs are not claimed before this time (retry backoff)
+    @Column(name = "available_at")
+    private LocalDateTime availableAt;
+
+    // Instance currently working on the job, and until when its claim holds
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.ieee.evaluator.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of jobs in one batch with one status; batch progress is built from these so listing
+ * batches never loads the job rows (and their results).
+ */
+public interface EvaluationJobCount {
+    String getBatchId();
+    String getStatus();
+    Long getTotal();
+    LocalDateTime getLastFinishedAt();
+}
@@ -0,0 +1,43 @@
+package com.ieee.evaluator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "evaluation_result_cache", indexes = {
+        @Index(name = "idx_result_cache_text_hash", columnList = "text_hash"),
+        @Index(name = "idx_result_cache_last_hit", columnList = "last_hit_at")
+})
+public class EvaluationResultCacheEntry {
+
+    // SHA-256 over textHash | provider | modelId | promptVersion
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    // SHA-256 of the exact text sent for evaluation
+    @Column(name = "text_hash", length = 64, nullable = false)
+    private String textHash;
+
+    private String provider;
+
+    private String modelId;
+
+    // The provider that wrote the report; differs from provider when that is "auto"
+    private String answeredBy;
+
+    private String promptVersion;
+
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime lastHitAt;
+
+    @Column(columnDefinition = "bigint default 0")
+    private long hitCount;
+}
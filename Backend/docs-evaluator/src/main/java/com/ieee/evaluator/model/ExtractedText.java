@@ -0,0 +1,13 @@
+package com.ieee.evaluator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExtractedText {
+    private String text;
+    private boolean truncated;   // true when extraction stopped at the character budget
+}
@@ -0,0 +1,35 @@
+package com.ieee.evaluator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a Google client library data store (e.g. the Drive OAuth credential), kept in
+ * the database so every backend instance shares the same tokens and refreshes.
+ */
+@Data
+@Entity
+@Table(name = "google_token_store", indexes = {
+        @Index(name = "idx_google_token_store_id", columnList = "store_id")
+})
+public class GoogleTokenEntry {
+
+    // storeId + "/" + key
+    @Id
+    @Column(name = "entry_key")
+    private String entryKey;
+
+    @Column(name = "store_id", nullable = false)
+    private String storeId;
+
+    @Column(name = "entry_name", nullable = false)
+    private String entryName;
+
+    // Java-serialized value, as the client library's own file store writes it
+    @Column(columnDefinition = "bytea", nullable = false)
+    private byte[] value;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,65 @@
+package com.ieee.evaluator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "submissions", indexes = {
+        @Index(name = "idx_submissions_doc_type_submitted_at", columnList = "doc_type, submitted_at"),
+        @Index(name = "idx_submissions_section", columnList = "section"),
+        @Index(name = "idx_submissions_team_code", columnList = "team_code"),
+        @Index(name = "idx_submissions_is_late", columnList = "is_late"),
+        @Index(name = "idx_submissions_file_id", columnList = "file_id")
+})
+public class Submission {
+
+    // fileId + "_" + docType, the same key the sync has always deduplicated on
+    @Id
+    @Column(name = "submission_key")
+    private String submissionKey;
+
+    private String fileId;
+
+    private String docType;
+
+    private String section;
+
+    private String teamCode;
+
+    private String studentName;
+
+    // Null when the form timestamp could not be parsed
+    private LocalDateTime submittedAt;
+
+    @Column(name = "is_late", columnDefinition = "boolean default false")
+    private Boolean isLate = false;
+
+    // Display label shown on the dashboard, e.g. "[LATE] [SRS] section - team | student"
+    private String name;
+
+    private String mimeType;
+
+    @Column(columnDefinition = "TEXT")
+    private String webViewLink;
+
+    // Raw Google Forms timestamp of the latest submission, e.g. "3/21/2026 23:59:00"
+    private String submittedAtText;
+
+    // Position of the latest submission row inside GOOGLE_RESPONSES_RANGE (0 = first row)
+    private Integer rowIndex;
+
+    private LocalDateTime syncedAt;
+
+    public DriveFile toDriveFile() {
+        DriveFile file = new DriveFile();
+        file.setId(fileId);
+        file.setName(name);
+        file.setMimeType(mimeType);
+        file.setSubmittedAt(submittedAtText);
+        file.setWebViewLink(webViewLink);
+        return file;
+    }
+}
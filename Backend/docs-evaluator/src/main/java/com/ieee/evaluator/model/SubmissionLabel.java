@@ -0,0 +1,68 @@
+package com.ieee.evaluator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The parts of a submission display label, "[LATE] [SRS] section - team | student".
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubmissionLabel {
+
+    // "GO1" (letter O) and "G1" are common misspellings of section "G01"
+    private static final Pattern SHORT_SECTION = Pattern.compile("^GO?(\\d)$");
+
+    private static final Pattern LABEL = Pattern.compile(
+            "^\\s*(\\[LATE]\\s*)?\\[([A-Za-z]+)]\\s*(.*?)\\s+-\\s+(.*?)\\s*(?:\\|\\s*(.*))?$");
+
+    private String docType;
+    private String section;
+    private String teamCode;
+    private String studentName;
+    private boolean late;
+
+    /**
+     * Parses a label built by the submission sync; returns null for anything else.
+     */
+    public static SubmissionLabel parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        Matcher matcher = LABEL.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new SubmissionLabel(
+                matcher.group(2).toUpperCase(Locale.ROOT),
+                matcher.group(3).trim(),
+                normalizeTeamCode(matcher.group(4)),
+                matcher.group(5) != null ? matcher.group(5).trim() : "",
+                matcher.group(1) != null);
+    }
+
+    /**
+     * Team codes are compared exactly, so store and query them trimmed and upper-cased.
+     */
+    public static String normalizeTeamCode(String teamCode) {
+        return teamCode == null ? null : teamCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Same rules as the dashboard's normalizeSection: trimmed, upper-cased, "GO1" and "G1" read as "G01".
+     */
+    public static String normalizeSection(String section) {
+        if (section == null) {
+            return null;
+        }
+        String upper = section.trim().toUpperCase(Locale.ROOT);
+        Matcher shortSection = SHORT_SECTION.matcher(upper);
+        return shortSection.matches() ? "G0" + shortSection.group(1) : upper;
+    }
+}
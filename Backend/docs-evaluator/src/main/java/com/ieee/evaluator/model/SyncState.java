@@ -0,0 +1,32 @@
+package com.ieee.evaluator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "sync_state")
+public class SyncState {
+
+    @Id
+    @Column(name = "sync_key")
+    private String syncKey;
+
+    // Last processed row inside the responses range (0 = first row) and its timestamp cell,
+    // used to detect edited or re-sorted sheets before trusting the watermark
+    private Integer lastRowIndex;
+
+    private String lastRowTimestamp;
+
+    // Sheet id, range, column layout and deadlines the watermark was built with; any change forces a full rebuild
+    @Column(columnDefinition = "TEXT")
+    private String configSignature;
+
+    private LocalDateTime lastSyncedAt;
+
+    private Integer lastFetchedRows;
+
+    private Boolean lastSyncFull;
+}
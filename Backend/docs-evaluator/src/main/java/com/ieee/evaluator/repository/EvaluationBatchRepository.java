@@ -0,0 +1,13 @@
+package com.ieee.evaluator.repository;
+
+import com.ieee.evaluator.model.EvaluationBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EvaluationBatchRepository extends JpaRepository<EvaluationBatch, String> {
+
+    List<EvaluationBatch> findTop50ByOrderByCreatedAtDesc();
+}
@@ -1,15 +1,54 @@
 package com.ieee.evaluator.repository;
 
 import com.ieee.evaluator.model.EvaluationHistory;
+import com.ieee.evaluator.model.EvaluationHistoryFacet;
+import com.ieee.evaluator.model.EvaluationHistorySummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EvaluationHistoryRepository extends JpaRepository<EvaluationHistory, Long> {
-    List<EvaluationHistory> findAllByOrderByEvaluatedAtDesc();
     Optional<EvaluationHistory> findTopByFileIdOrderByEvaluatedAtDesc(String fileId);
-    List<EvaluationHistory> findByIsSentTrueAndFileNameContainingIgnoreCaseOrderByEvaluatedAtDesc(String groupCode);
-}
\ No newline at end of file
+    List<EvaluationHistory> findByTeamCodeAndIsSentTrueOrderByEvaluatedAtDesc(String teamCode);
+    List<EvaluationHistory> findTop500ByTeamCodeIsNull();
+
+    // Keyset pagination over (evaluatedAt, id), newest first; only the list columns are selected
+    String SUMMARY_COLUMNS = "h.id AS id, h.fileId AS fileId, h.fileName AS fileName, h.modelUsed AS modelUsed, "
+            + "h.evaluatedAt AS evaluatedAt, h.isSent AS isSent, h.textTruncated AS textTruncated, "
+            + "h.teamCode AS teamCode, h.section AS section, h.docType AS docType";
+
+    // Empty strings (and a '' entry in sections) switch a filter off; search is a LIKE pattern escaped with '!'
+    String SUMMARY_FILTER = "(:status = '' OR (:status = 'sent' AND h.isSent = true) "
+            + "OR (:status = 'pending' AND (h.isSent = false OR h.isSent IS NULL))) "
+            + "AND (:docType = '' OR h.docType = :docType) "
+            + "AND (:teamCode = '' OR h.teamCode = :teamCode) "
+            + "AND ('' IN :sections OR UPPER(TRIM(h.section)) IN :sections) "
+            + "AND (:search = '' OR LOWER(h.fileName) LIKE :search ESCAPE '!')";
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM EvaluationHistory h WHERE " + SUMMARY_FILTER
+            + " ORDER BY h.evaluatedAt DESC, h.id DESC")
+    List<EvaluationHistorySummary> findSummaryPage(String status, String docType, String teamCode,
+                                                   Collection<String> sections, String search, Limit limit);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM EvaluationHistory h WHERE " + SUMMARY_FILTER
+            + " AND (h.evaluatedAt < :evaluatedAt OR (h.evaluatedAt = :evaluatedAt AND h.id < :id))"
+            + " ORDER BY h.evaluatedAt DESC, h.id DESC")
+    List<EvaluationHistorySummary> findSummaryPageAfter(LocalDateTime evaluatedAt, Long id,
+                                                        String status, String docType, String teamCode,
+                                                        Collection<String> sections, String search, Limit limit);
+
+    // Row counts per filter combination; a few hundred groups at most, whatever the history size
+    @Query("SELECT h.section AS section, h.teamCode AS teamCode, h.docType AS docType, h.isSent AS isSent, "
+            + "COUNT(h) AS total FROM EvaluationHistory h GROUP BY h.section, h.teamCode, h.docType, h.isSent")
+    List<EvaluationHistoryFacet> countFacets();
+
+    @Query("SELECT DISTINCT h.fileId FROM EvaluationHistory h WHERE h.fileId IS NOT NULL")
+    List<String> findEvaluatedFileIds();
+}
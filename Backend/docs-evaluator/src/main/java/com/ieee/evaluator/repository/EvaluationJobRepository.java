@@ -0,0 +1,65 @@
+package com.ieee.evaluator.repository;
+
+import com.ieee.evaluator.model.EvaluationJob;
+import com.ieee.evaluator.model.EvaluationJobCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EvaluationJobRepository extends JpaRepository<EvaluationJob, Long> {
+
+    /**
+     * Locks up to {@code limit} jobs that are due, or whose worker stopped renewing its lease.
+     * SKIP LOCKED lets several instances poll at once without handing out the same job twice.
+     * Must run inside a transaction; the caller marks the rows RUNNING before it commits.
+     */
+    @Query(value = "SELECT * FROM evaluation_job"
+            + " WHERE (status = 'PENDING' AND available_at <= :now)"
+            + " OR (status = 'RUNNING' AND lease_expires_at < :now)"
+            + " ORDER BY available_at, id"
+            + " LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EvaluationJob> lockClaimable(LocalDateTime now, int limit);
+
+    List<EvaluationJob> findByBatchIdOrderByIdAsc(String batchId);
+
+    @Query("SELECT j.batchId AS batchId, j.status AS status, COUNT(j) AS total, MAX(j.finishedAt) AS lastFinishedAt"
+            + " FROM EvaluationJob j WHERE j.batchId IN :batchIds GROUP BY j.batchId, j.status")
+    List<EvaluationJobCount> countByBatch(Collection<String> batchIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EvaluationJob j SET j.leaseExpiresAt = :until"
+            + " WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = 'RUNNING'")
+    int renewLeases(Collection<Long> ids, String owner, LocalDateTime until);
+
+    // Only the lease holder may settle a job; a worker that lost its lease changes nothing
+    @Modifying
+    @Transactional
+    @Query("UPDATE EvaluationJob j SET j.status = :status, j.result = :result, j.lastError = :error,"
+            + " j.finishedAt = :finishedAt, j.leaseOwner = null, j.leaseExpiresAt = null"
+            + " WHERE j.id = :id AND j.leaseOwner = :owner AND j.status = 'RUNNING'")
+    int finish(Long id, String owner, String status, String result, String error, LocalDateTime finishedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EvaluationJob j SET j.status = 'PENDING', j.lastError = :error, j.availableAt = :availableAt,"
+            + " j.leaseOwner = null, j.leaseExpiresAt = null"
+            + " WHERE j.id = :id AND j.leaseOwner = :owner AND j.status = 'RUNNING'")
+    int reschedule(Long id, String owner, String error, LocalDateTime availableAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EvaluationJob j SET j.status = 'CANCELLED', j.lastError = 'Job cancelled', j.finishedAt = :now"
+            + " WHERE j.batchId = :batchId AND j.status = 'PENDING'")
+    int cancelPending(String batchId, LocalDateTime now);
+
+    @Query("SELECT j.status, COUNT(j) FROM EvaluationJob j GROUP BY j.status")
+    List<Object[]> countByStatus();
+}
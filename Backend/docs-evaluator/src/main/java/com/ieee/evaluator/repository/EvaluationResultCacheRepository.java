@@ -0,0 +1,20 @@
+package com.ieee.evaluator.repository;
+
+import com.ieee.evaluator.model.EvaluationResultCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface EvaluationResultCacheRepository extends JpaRepository<EvaluationResultCacheEntry, String> {
+
+    // Hit bookkeeping without loading and rewriting the (large) result column
+    @Modifying
+    @Transactional
+    @Query("UPDATE EvaluationResultCacheEntry e SET e.hitCount = e.hitCount + 1, e.lastHitAt = :hitAt WHERE e.cacheKey = :cacheKey")
+    int recordHit(String cacheKey, LocalDateTime hitAt);
+}
@@ -0,0 +1,21 @@
+package com.ieee.evaluator.repository;
+
+import com.ieee.evaluator.model.GoogleTokenEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface GoogleTokenRepository extends JpaRepository<GoogleTokenEntry, String> {
+
+    List<GoogleTokenEntry> findByStoreId(String storeId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GoogleTokenEntry e WHERE e.storeId = :storeId")
+    int deleteByStoreId(String storeId);
+}
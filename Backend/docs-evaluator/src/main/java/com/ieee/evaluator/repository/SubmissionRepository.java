@@ -0,0 +1,15 @@
+package com.ieee.evaluator.repository;
+
+import com.ieee.evaluator.model.Submission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubmissionRepository extends JpaRepository<Submission, String>, JpaSpecificationExecutor<Submission> {
+    List<Submission> findAllByOrderByRowIndexAscSubmissionKeyAsc();
+    Optional<Submission> findFirstByFileIdOrderByRowIndexDesc(String fileId);
+}
@@ -0,0 +1,9 @@
+package com.ieee.evaluator.repository;
+
+import com.ieee.evaluator.model.SyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncStateRepository extends JpaRepository<SyncState, String> {
+}
@@ -0,0 +1,403 @@
+package com.ieee.evaluator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sends JSON requests to AI providers over the shared {@link HttpClient}. Each provider gets its
+ * own timeouts, rate limiter and gzip setting from {@code evaluator.ai.<provider>.*}. Requests
+ * the provider throttles (429/503) are retried after the delay it asked for.
+ */
+@Component
+@Slf4j
+public class AiHttpClient {
+
+    // Rough prompt size in tokens; providers count ~4 characters of English per token
+    private static final int CHARS_PER_TOKEN = 4;
+
+    /**
+     * Per-provider limits, read once from configuration.
+     */
+    private static final class ProviderSettings {
+        private final Duration headersTimeout;
+        private final long totalTimeoutMs;
+        private final long maxQueueMs;
+        private final int maxRetries;
+        private final int completionTokens;
+        private final ProviderRateLimiter limiter;
+        private final boolean gzipRequests;
+        private final int gzipMinBytes;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+
+        private ProviderSettings(Duration headersTimeout, long totalTimeoutMs, long maxQueueMs, int maxRetries, int completionTokens,
+                                 ProviderRateLimiter limiter, boolean gzipRequests, int gzipMinBytes) {
+            this.headersTimeout = headersTimeout;
+            this.totalTimeoutMs = totalTimeoutMs;
+            this.maxQueueMs = maxQueueMs;
+            this.maxRetries = maxRetries;
+            this.completionTokens = completionTokens;
+            this.limiter = limiter;
+            this.gzipRequests = gzipRequests;
+            this.gzipMinBytes = gzipMinBytes;
+        }
+    }
+
+    /**
+     * One HTTP exchange, run once per attempt while holding a limiter permit.
+     */
+    @FunctionalInterface
+    private interface Exchange<T> {
+        T run(ProviderSettings limits) throws IOException, InterruptedException;
+    }
+
+    // Closes streams that run past their deadline; the close itself is instant, so one thread serves every provider
+    private static final ScheduledThreadPoolExecutor STREAM_WATCHDOG = new ScheduledThreadPoolExecutor(1,
+            Thread.ofPlatform().daemon().name("ai-stream-watchdog").factory());
+
+    static {
+        STREAM_WATCHDOG.setRemoveOnCancelPolicy(true);
+    }
+
+    private final HttpClient httpClient;
+    private final Environment environment;
+    private final EvaluatorMetrics metrics;
+    private final Map<String, ProviderSettings> settings = new ConcurrentHashMap<>();
+
+    public AiHttpClient(@Qualifier("aiJdkHttpClient") HttpClient httpClient, Environment environment, EvaluatorMetrics metrics) {
+        this.httpClient = httpClient;
+        this.environment = environment;
+        this.metrics = metrics;
+    }
+
+    /**
+     * POSTs {@code jsonBody} and returns the response body. Waits for the provider's rate
+     * limiter, then gives each attempt at most the provider's total timeout, body included, so a
+     * response that trickles in is cut off too. Non-2xx answers that are not retried throw
+     * {@link AiHttpException}.
+     */
+    public String postJson(String provider, String url, Map<String, String> headers, String jsonBody) throws IOException {
+        HttpRequest request = buildRequest(url, headers, jsonBody, settingsFor(provider), true);
+
+        return execute(provider, jsonBody, limits -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limits.totalTimeoutMs);
+            // ofByteArray completes only once the whole body is in, so the timed get bounds the body read as well
+            HttpResponse<byte[]> response = await(provider, limits,
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()), deadline);
+            String body = decodeBody(response);
+            checkStatus(provider, response, body);
+            return body;
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #postJson}: hands each line of the response body to
+     * {@code onLine} as it arrives (e.g. Server-Sent Event {@code data:} lines). The total
+     * timeout covers the whole stream: a watchdog closes the body at the deadline, so a provider
+     * that stops sending mid-stream cannot hold the caller. Throttled requests are retried only
+     * before any line has been delivered.
+     */
+    public void postJsonStream(String provider, String url, Map<String, String> headers, String jsonBody,
+                               Consumer<String> onLine) throws IOException {
+        HttpRequest request = buildRequest(url, headers, jsonBody, settingsFor(provider), false);
+
+        execute(provider, jsonBody, limits -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limits.totalTimeoutMs);
+            HttpResponse<InputStream> response = await(provider, limits,
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()), deadline);
+
+            // readLine blocks until the provider sends more, so only closing the body can interrupt it
+            AtomicBoolean expired = new AtomicBoolean();
+            ScheduledFuture<?> watchdog = STREAM_WATCHDOG.schedule(() -> {
+                expired.set(true);
+                closeQuietly(response.body());
+            }, Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            try {
+                if (response.statusCode() / 100 != 2) {
+                    checkStatus(provider, response, readBody(response));
+                }
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        onLine.accept(line);
+                    }
+                }
+            } catch (AiHttpException e) {
+                throw e;
+            } catch (IOException e) {
+                if (expired.get()) {
+                    throw new HttpTimeoutException(provider + " stream exceeded " + limits.totalTimeoutMs + " ms");
+                }
+                throw e;
+            } finally {
+                watchdog.cancel(false);
+            }
+            // A closed body can also read as end of stream; report the timeout, not a truncated answer
+            if (expired.get()) {
+                throw new HttpTimeoutException(provider + " stream exceeded " + limits.totalTimeoutMs + " ms");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Records the token counts a provider reported in a response's {@code usage} object, so they
+     * can be compared with the limiter's estimates.
+     */
+    public void recordUsage(String provider, JsonNode usage) {
+        if (usage == null || !usage.isObject()) {
+            return;
+        }
+        if (usage.has("prompt_tokens")) {
+            metrics.record("evaluator.ai.tokens", usage.path("prompt_tokens").asLong(), "provider", provider, "kind", "prompt");
+        }
+        if (usage.has("completion_tokens")) {
+            metrics.record("evaluator.ai.tokens", usage.path("completion_tokens").asLong(), "provider", provider, "kind", "completion");
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        settings.forEach((provider, limits) -> {
+            Map<String, Object> entry = new LinkedHashMap<>(limits.limiter.getStats());
+            entry.put("requests", limits.requests.get());
+            entry.put("retries", limits.retries.get());
+            entry.put("failures", limits.failures.get());
+            entry.put("timeouts", limits.timeouts.get());
+            stats.put(provider, entry);
+        });
+        return stats;
+    }
+
+    /**
+     * Runs {@code exchange} under the provider's rate limiter, retrying throttled attempts.
+     */
+    private <T> T execute(String provider, String jsonBody, Exchange<T> exchange) throws IOException {
+        ProviderSettings limits = settingsFor(provider);
+        int estimatedTokens = jsonBody.length() / CHARS_PER_TOKEN + limits.completionTokens;
+        metrics.record("evaluator.ai.tokens", estimatedTokens, "provider", provider, "kind", "estimated");
+
+        for (int attempt = 0; ; attempt++) {
+            ProviderRateLimiter.Permit permit;
+            EvaluatorMetrics.Sample queued = metrics.start("evaluator.ai.queue", "provider", provider);
+            String queueOutcome = EvaluatorMetrics.ERROR;
+            try {
+                permit = limits.limiter.acquire(estimatedTokens, limits.maxQueueMs);
+                queueOutcome = EvaluatorMetrics.SUCCESS;
+            } catch (HttpTimeoutException e) {
+                queueOutcome = "timeout";
+                limits.timeouts.incrementAndGet();
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a " + provider + " slot");
+            } finally {
+                metrics.stop(queued, queueOutcome);
+            }
+
+            limits.requests.incrementAndGet();
+            // One sample per attempt, so throttled retries show up next to the call that succeeded
+            EvaluatorMetrics.Sample request = metrics.start("evaluator.ai.request", "provider", provider);
+            String outcome = EvaluatorMetrics.ERROR;
+            try {
+                T result = exchange.run(limits);
+                permit.onSuccess();
+                outcome = EvaluatorMetrics.SUCCESS;
+                return result;
+            } catch (AiHttpException e) {
+                if (isThrottle(e.getStatusCode())) {
+                    outcome = "throttled";
+                }
+                if (isThrottle(e.getStatusCode()) && attempt < limits.maxRetries) {
+                    // The limiter pauses the provider for Retry-After; the next acquire waits it out
+                    permit.onThrottled(e.getRetryAfterSeconds());
+                    limits.retries.incrementAndGet();
+                    log.info("{} throttled the request (HTTP {}), retry {} of {}", provider, e.getStatusCode(), attempt + 1, limits.maxRetries);
+                    continue;
+                }
+                if (isThrottle(e.getStatusCode())) {
+                    permit.onThrottled(e.getRetryAfterSeconds());
+                } else {
+                    permit.onFailure();
+                }
+                limits.failures.incrementAndGet();
+                throw e;
+            } catch (HttpTimeoutException e) {
+                outcome = "timeout";
+                permit.onFailure();
+                limits.timeouts.incrementAndGet();
+                throw e;
+            } catch (InterruptedException e) {
+                permit.onFailure();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while calling " + provider);
+            } catch (IOException | RuntimeException e) {
+                permit.onFailure();
+                limits.failures.incrementAndGet();
+                throw e;
+            } finally {
+                metrics.stop(request, outcome);
+            }
+        }
+    }
+
+    /**
+     * Waits for {@code future} until {@code deadline}, cancelling the exchange if it is not done by then.
+     */
+    private static <T> HttpResponse<T> await(String provider, ProviderSettings limits, CompletableFuture<HttpResponse<T>> future,
+                                             long deadline) throws IOException, InterruptedException {
+        try {
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HttpTimeoutException(provider + " did not answer within " + limits.totalTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(provider + " request failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Closing a timed-out stream failed: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isThrottle(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    private static void checkStatus(String provider, HttpResponse<?> response, String body) throws AiHttpException {
+        if (response.statusCode() / 100 != 2) {
+            long retryAfter = response.headers().firstValue("Retry-After")
+                    .map(AiHttpClient::parseRetryAfter)
+                    .orElse(-1L);
+            throw new AiHttpException(provider, response.statusCode(), body, retryAfter);
+        }
+    }
+
+    private HttpRequest buildRequest(String url, Map<String, String> headers, String jsonBody, ProviderSettings limits,
+                                     boolean acceptGzip) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(limits.headersTimeout)
+                .header("Content-Type", "application/json");
+        if (acceptGzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        headers.forEach(builder::header);
+
+        byte[] payload = jsonBody.getBytes(StandardCharsets.UTF_8);
+        if (limits.gzipRequests && payload.length >= limits.gzipMinBytes) {
+            payload = gzip(payload);
+            builder.header("Content-Encoding", "gzip");
+        }
+        return builder.POST(HttpRequest.BodyPublishers.ofByteArray(payload)).build();
+    }
+
+    private ProviderSettings settingsFor(String provider) {
+        return settings.computeIfAbsent(provider, name -> {
+            String prefix = "evaluator.ai." + name + ".";
+            // Provider quotas are per account, so each of N instances gets an equal share
+            int nodes = Math.max(1, environment.getProperty("evaluator.cluster.nodes", Integer.class, 1));
+            ProviderRateLimiter limiter = new ProviderRateLimiter(
+                    name,
+                    environment.getProperty(prefix + "requests-per-minute", Double.class, 0.0) / nodes,
+                    environment.getProperty(prefix + "tokens-per-minute", Double.class, 0.0) / nodes,
+                    environment.getProperty(prefix + "min-in-flight", Integer.class, 1),
+                    environment.getProperty(prefix + "max-in-flight", Integer.class, 8),
+                    environment.getProperty(prefix + "latency-target-ms", Long.class, 0L),
+                    environment.getProperty(prefix + "throttle-backoff-ms", Long.class, 10_000L),
+                    environment.getProperty(prefix + "decrease-cooldown-ms", Long.class, 5_000L));
+            return new ProviderSettings(
+                    // Only bounds the wait for the response headers; total-timeout-ms covers the whole exchange
+                    Duration.ofMillis(environment.getProperty(prefix + "headers-timeout-ms", Long.class,
+                            environment.getProperty(prefix + "read-timeout-ms", Long.class, 60_000L))),
+                    environment.getProperty(prefix + "total-timeout-ms", Long.class, 120_000L),
+                    environment.getProperty(prefix + "max-queue-ms", Long.class, 600_000L),
+                    environment.getProperty(prefix + "max-retries", Integer.class, 4),
+                    environment.getProperty(prefix + "completion-tokens", Integer.class, 800),
+                    limiter,
+                    environment.getProperty(prefix + "gzip-requests", Boolean.class, false),
+                    environment.getProperty(prefix + "gzip-min-bytes", Integer.class, 4096));
+        });
+    }
+
+    private static String readBody(HttpResponse<InputStream> response) throws IOException {
+        try (InputStream raw = response.body();
+             InputStream in = isGzipped(response) ? new GZIPInputStream(raw) : raw) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String decodeBody(HttpResponse<byte[]> response) throws IOException {
+        if (!isGzipped(response)) {
+            return new String(response.body(), StandardCharsets.UTF_8);
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static boolean isGzipped(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Encoding")
+                .map(value -> value.equalsIgnoreCase("gzip"))
+                .orElse(false);
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+
+    private static long parseRetryAfter(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1L; // HTTP-date form; the limiter falls back to its own backoff
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ieee.evaluator.service;
+
+import java.io.IOException;
+
+/**
+ * A non-2xx answer from an AI provider, with enough detail for callers to decide whether to retry.
+ */
+public class AiHttpException extends IOException {
+
+    private final String provider;
+    private final int statusCode;
+    private final String responseBody;
+    private final long retryAfterSeconds;
+
+    public AiHttpException(String provider, int statusCode, String responseBody, long retryAfterSeconds) {
+        super(provider + " returned HTTP " + statusCode + ": " + abbreviate(responseBody));
+        this.provider = provider;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * Seconds from the Retry-After header, or -1 when the provider did not send one.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private static String abbreviate(String body) {
+        if (body == null) {
+            return "";
+        }
+        return body.length() > 300 ? body.substring(0, 300) + "..." : body;
+    }
+}
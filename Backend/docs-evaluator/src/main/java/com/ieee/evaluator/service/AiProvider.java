@@ -1,9 +1,32 @@
 package com.ieee.evaluator.service;
 
+import java.util.function.Consumer;
+
 public interface AiProvider {
     // The identifier used by the frontend (e.g., "openai", "gemini")
     String getProviderName(); 
     
+    // The concrete model behind the provider (e.g. "gpt-4o-mini"); part of the result cache key
+    default String getModelId() {
+        return getProviderName();
+    }
+
     // The actual logic to send text to the AI and get the result
     String analyze(String text) throws Exception; 
-}
\ No newline at end of file
+
+    // Sends an already-built prompt as-is (used for the chunk and merge steps of large documents)
+    String complete(String prompt) throws Exception;
+
+    // Same as complete(), but hands each piece of the answer to onToken as it is generated.
+    // Providers without streaming support deliver the whole answer as a single piece.
+    default String completeStreaming(String prompt, Consumer<String> onToken) throws Exception {
+        String result = complete(prompt);
+        onToken.accept(result);
+        return result;
+    }
+
+    // How many characters of document text this provider accepts (-1 = no limit); extraction stops there
+    default int getMaxInputChars() {
+        return -1;
+    }
+}
@@ -1,12 +1,23 @@
 package com.ieee.evaluator.service;
 
-import com.ieee.evaluator.model.EvaluationHistory;
-import com.ieee.evaluator.repository.EvaluationHistoryRepository;
+import com.ieee.evaluator.model.ExtractedText;
+import com.ieee.evaluator.model.SubmissionLabel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -14,55 +25,330 @@ import java.util.stream.Collectors;
 public class AiService {
 
     private final GoogleDocsService docsService;
-    private final EvaluationHistoryRepository historyRepository;
+    private final EvaluationHistoryWriter historyWriter;
+    private final ChunkedEvaluationPipeline pipeline;
+    private final EvaluationResultCache resultCache;
     private final Map<String, AiProvider> providers;
+    private final RoutingAiProvider router;
+    private final EvaluatorMetrics metrics;
+
+    // Single flight: concurrent requests for the same file and model share one evaluation
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedRequests = new AtomicLong();
 
     public AiService(GoogleDocsService docsService, 
-                     EvaluationHistoryRepository historyRepository, 
-                     List<AiProvider> providerList) {
+                     EvaluationHistoryWriter historyWriter,
+                     ChunkedEvaluationPipeline pipeline,
+                     EvaluationResultCache resultCache,
+                     List<AiProvider> providerList,
+                     EvaluatorMetrics metrics,
+                     Environment environment) {
         this.docsService = docsService;
-        this.historyRepository = historyRepository;
+        this.historyWriter = historyWriter;
+        this.pipeline = pipeline;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
         
         // This automatically builds a map of {"openai": OpenAiService, "openrouter": OpenRouterService}
-        this.providers = providerList.stream()
+        Map<String, AiProvider> registered = providerList.stream()
                 .collect(Collectors.toMap(p -> p.getProviderName().toLowerCase(), Function.identity()));
+
+        // "auto" races and fails over between the registered providers
+        this.router = buildRouter(registered, environment);
+        this.providers = new HashMap<>(registered);
+        this.providers.put(RoutingAiProvider.NAME, router);
+    }
+
+    private static RoutingAiProvider buildRouter(Map<String, AiProvider> registered, Environment environment) {
+        List<AiProvider> ordered = new ArrayList<>();
+        for (String name : environment.getProperty("evaluator.ai.routing.order", "openai,openrouter").split(",")) {
+            AiProvider provider = registered.get(name.trim().toLowerCase());
+            if (provider != null && !ordered.contains(provider)) {
+                ordered.add(provider);
+            }
+        }
+        // Providers missing from the configured order still take part, after the listed ones
+        registered.values().stream().filter(p -> !ordered.contains(p)).forEach(ordered::add);
+
+        return new RoutingAiProvider(
+                ordered,
+                environment.getProperty("evaluator.ai.routing.hedging-enabled", Boolean.class, true),
+                environment.getProperty("evaluator.ai.routing.default-hedge-delay-ms", Long.class, 20_000L),
+                environment.getProperty("evaluator.ai.routing.min-hedge-delay-ms", Long.class, 3_000L),
+                environment.getProperty("evaluator.ai.routing.failure-threshold", Integer.class, 3),
+                environment.getProperty("evaluator.ai.routing.open-ms", Long.class, 60_000L));
+    }
+
+    public Map<String, Object> getRoutingStats() {
+        return router.getStats();
+    }
+
+    public Map<String, Object> getCoalescingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("coalescedRequests", coalescedRequests.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        router.shutdown();
     }
 
     public String analyzeDocument(String fileId, String fileName, String aiModel) throws Exception {
-        
-        // 1. Directly export the Google Doc as pure text string
-        String extractedText = docsService.exportDocAsText(fileId);
+        return analyzeDocument(fileId, fileName, aiModel, false);
+    }
 
-        if (extractedText == null || extractedText.trim().isEmpty()) {
-            return "ERROR: No readable text found in this document. Please ensure the Google Doc contains text.";
+    /**
+     * @param force skip the result cache and ask the model again even if this exact text was evaluated before
+     */
+    public String analyzeDocument(String fileId, String fileName, String aiModel, boolean force) throws Exception {
+
+        AiProvider provider = resolveProvider(aiModel);
+        if (provider == null) {
+            return "ERROR: Model provider '" + aiModel + "' is not supported.";
+        }
+
+        // One parent span for the Drive, Tika, model and database work below
+        return coalesce(flightKey(fileId, aiModel, force), null, () -> metrics.time("evaluator.analyze", () -> {
+            // 1. Directly export the Google Doc as pure text string, stopping at what the pipeline can take
+            ExtractedText extractedText = docsService.extractText(fileId, extractionBudget(provider));
+
+            return evaluateExtracted(fileId, fileName, aiModel, extractedText, force);
+        }, "provider", provider.getProviderName()));
+    }
+
+    /**
+     * Same as {@link #analyzeDocument}, but passes the report to {@code onToken} piece by piece
+     * while the model writes it. The complete report is saved to history once the stream ends.
+     * A caller that joins an evaluation already in flight receives the finished report as one piece.
+     */
+    public String analyzeDocumentStreaming(String fileId, String fileName, String aiModel, boolean force,
+                                           Consumer<String> onToken) throws Exception {
+
+        AiProvider provider = resolveProvider(aiModel);
+        if (provider == null) {
+            return "ERROR: Model provider '" + aiModel + "' is not supported.";
+        }
+
+        return coalesce(flightKey(fileId, aiModel, force), onToken,
+                () -> streamDocument(provider, fileId, fileName, aiModel, force, onToken));
+    }
+
+    private String streamDocument(AiProvider provider, String fileId, String fileName, String aiModel, boolean force,
+                                  Consumer<String> onToken) throws Exception {
+        EvaluatorMetrics.Sample sample = startEvaluation(provider, fileName, "stream");
+        String result = null;
+        String modelUsed = null;
+        boolean fromCache = false;
+        try {
+            ExtractedText extractedText = docsService.extractText(fileId, extractionBudget(provider));
+            if (isEmpty(extractedText)) {
+                result = "ERROR: No readable text found in this document. Please ensure the Google Doc contains text.";
+                return result;
+            }
+
+            String text = textForEvaluation(extractedText);
+            Optional<EvaluationResultCache.CachedResult> cached = force ? Optional.empty() : resultCache.get(provider, text);
+            if (cached.isPresent()) {
+                fromCache = true;
+                result = cached.get().result();
+                modelUsed = modelUsed(aiModel, cached.get());
+                onToken.accept(result);
+                historyWriter.save(fileId, fileName, modelUsed, extractedText.isTruncated(), result, true);
+                return result;
+            }
+
+            AiProvider evaluator = forEvaluation(provider);
+            result = pipeline.evaluateStreaming(evaluator, text, onToken);
+            modelUsed = modelUsed(aiModel, evaluator);
+            historyWriter.save(fileId, fileName, modelUsed, extractedText.isTruncated(), result, false);
+            resultCache.put(provider, text, result, modelUsed, force);
+            return result;
+        } finally {
+            metrics.stop(sample, EvaluatorMetrics.outcomeOf(result), "cached", String.valueOf(fromCache),
+                    "answeredBy", EvaluatorMetrics.tagValue(modelUsed));
+        }
+    }
+
+    /**
+     * Resolves the provider for a model name sent by the frontend, or null if it is not registered.
+     */
+    public AiProvider resolveProvider(String aiModel) {
+        if (aiModel == null) {
+            return null;
         }
 
-        // 2. Dynamically fetch the correct AI provider
         AiProvider provider = providers.get(aiModel.toLowerCase());
         
         // Quick fallback just in case the frontend still sends "GPT" instead of "openrouter"
         if (provider == null && "gpt".equalsIgnoreCase(aiModel)) {
             provider = providers.get("openrouter");
         }
+        return provider;
+    }
+
+    /**
+     * How many characters to extract for a provider; large documents are chunked, not cut.
+     */
+    public int extractionBudget(AiProvider provider) {
+        return pipeline.extractionBudget(provider);
+    }
+
+    /**
+     * The largest budget any registered provider uses (-1 if one takes the whole text), so text
+     * extracted ahead of time serves whichever model is picked later.
+     */
+    public int maxExtractionBudget() {
+        int max = 0;
+        for (AiProvider provider : providers.values()) {
+            int budget = extractionBudget(provider);
+            if (budget < 0) {
+                return -1;
+            }
+            max = Math.max(max, budget);
+        }
+        return max;
+    }
+
+    /**
+     * Evaluations currently running (analyze, stream or batch), after coalescing.
+     */
+    public int activeEvaluations() {
+        return inFlight.size();
+    }
+
+    /**
+     * Runs already-extracted text through the selected provider and records the result in history.
+     */
+    public String evaluateText(String fileId, String fileName, String aiModel, ExtractedText extractedText) throws Exception {
+        return evaluateText(fileId, fileName, aiModel, extractedText, false);
+    }
+
+    public String evaluateText(String fileId, String fileName, String aiModel, ExtractedText extractedText, boolean force) throws Exception {
+        return coalesce(flightKey(fileId, aiModel, force), null,
+                () -> evaluateExtracted(fileId, fileName, aiModel, extractedText, force));
+    }
+
+    private String evaluateExtracted(String fileId, String fileName, String aiModel, ExtractedText extractedText, boolean force) throws Exception {
+        if (isEmpty(extractedText)) {
+            return "ERROR: No readable text found in this document. Please ensure the Google Doc contains text.";
+        }
+
+        // 2. Dynamically fetch the correct AI provider
+        AiProvider provider = resolveProvider(aiModel);
 
         if (provider == null) {
             return "ERROR: Model provider '" + aiModel + "' is not supported.";
         }
 
-        String result = provider.analyze(extractedText);
-        
-        EvaluationHistory history = historyRepository
-                .findTopByFileIdOrderByEvaluatedAtDesc(fileId)
-                .orElseGet(EvaluationHistory::new);
-        history.setFileId(fileId);
-        history.setFileName(fileName);
-        history.setModelUsed(aiModel);
-        history.setEvaluationResult(result);
-        history.setEvaluatedAt(LocalDateTime.now());
-        history.setIsSent(false);
-        history.setTeacherFeedback(null);
-        historyRepository.save(history);
-
-        return result;
-    }
-}
\ No newline at end of file
+        EvaluatorMetrics.Sample sample = startEvaluation(provider, fileName, "text");
+        String result = null;
+        String modelUsed = null;
+        boolean fromCache = false;
+        try {
+            // 3. Identical text, model and prompts as an earlier run: reuse that report
+            String text = textForEvaluation(extractedText);
+            Optional<EvaluationResultCache.CachedResult> cached = force ? Optional.empty() : resultCache.get(provider, text);
+            if (cached.isPresent()) {
+                fromCache = true;
+                result = cached.get().result();
+                modelUsed = modelUsed(aiModel, cached.get());
+                historyWriter.save(fileId, fileName, modelUsed, extractedText.isTruncated(), result, true);
+                return result;
+            }
+
+            AiProvider evaluator = forEvaluation(provider);
+            result = pipeline.evaluate(evaluator, text);
+            modelUsed = modelUsed(aiModel, evaluator);
+            historyWriter.save(fileId, fileName, modelUsed, extractedText.isTruncated(), result, false);
+            resultCache.put(provider, text, result, modelUsed, force);
+
+            return result;
+        } finally {
+            metrics.stop(sample, EvaluatorMetrics.outcomeOf(result), "cached", String.valueOf(fromCache),
+                    "answeredBy", EvaluatorMetrics.tagValue(modelUsed));
+        }
+    }
+
+    /**
+     * "auto" gets a session of its own per evaluation, so it can tell which provider answered.
+     */
+    private static AiProvider forEvaluation(AiProvider provider) {
+        return provider instanceof RoutingAiProvider router ? router.session() : provider;
+    }
+
+    /**
+     * What history records as the model: the requested one, except that "auto" is replaced by
+     * the provider(s) that actually wrote the report.
+     */
+    private static String modelUsed(String aiModel, AiProvider evaluator) {
+        return evaluator instanceof RoutingAiProvider.Session session ? session.getAnsweredBy() : aiModel;
+    }
+
+    private static String modelUsed(String aiModel, EvaluationResultCache.CachedResult cached) {
+        return RoutingAiProvider.NAME.equalsIgnoreCase(aiModel) && cached.answeredBy() != null
+                ? cached.answeredBy()
+                : aiModel;
+    }
+
+    /**
+     * End-to-end time of one evaluation ("stream" includes extraction, "text" starts from extracted
+     * text), tagged by provider and the document type parsed from the file name.
+     */
+    private EvaluatorMetrics.Sample startEvaluation(AiProvider provider, String fileName, String mode) {
+        SubmissionLabel label = SubmissionLabel.parse(fileName);
+        return metrics.start("evaluator.evaluation",
+                "provider", provider.getProviderName(),
+                "docType", EvaluatorMetrics.tagValue(label != null ? label.getDocType() : null),
+                "mode", mode);
+    }
+
+    private static boolean isEmpty(ExtractedText extractedText) {
+        return extractedText == null || extractedText.getText() == null || extractedText.getText().trim().isEmpty();
+    }
+
+    private static String textForEvaluation(ExtractedText extractedText) {
+        return extractedText.isTruncated()
+                ? extractedText.getText() + "...[truncated]"
+                : extractedText.getText();
+    }
+
+    private static String flightKey(String fileId, String aiModel, boolean force) {
+        return fileId + "|" + aiModel.toLowerCase() + (force ? "|force" : "");
+    }
+
+    /**
+     * Runs {@code work} unless the same key is already being evaluated, in which case it waits for
+     * that result instead. {@code onJoinedResult} (if any) receives the shared result when joining.
+     */
+    private String coalesce(String key, Consumer<String> onJoinedResult, Callable<String> work) throws Exception {
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, mine);
+
+        if (leader != null) {
+            coalescedRequests.incrementAndGet();
+            String result;
+            try {
+                result = leader.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            if (onJoinedResult != null) {
+                onJoinedResult.accept(result);
+            }
+            return result;
+        }
+
+        try {
+            String result = work.call();
+            mine.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+}
@@ -1,78 +1,222 @@
 package com.ieee.evaluator.service;
 
 import com.ieee.evaluator.model.StudentTrackerRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Answers login checks from an in-memory email index built from the Teachers and Students tabs.
+ * The index is rebuilt in the background and swapped in atomically, so a login never waits on
+ * the Sheets API once the first load has finished.
+ */
 @Service
+@Slf4j
 public class AuthAllowlistService {
 
+    private static final String TEACHERS_RANGE = "Teachers!A2:B";
+    private static final String STUDENTS_RANGE = "Students!A2:D";
+
+    /**
+     * Immutable snapshot of the allowlist; replaced as a whole on every refresh.
+     */
+    private static final class AllowlistIndex {
+        private final Map<String, StudentTrackerRecord> byEmail;
+        private final int teachers;
+        private final int students;
+        private final Instant loadedAt;
+
+        private AllowlistIndex(Map<String, StudentTrackerRecord> byEmail, int teachers, int students) {
+            this.byEmail = Map.copyOf(byEmail);
+            this.teachers = teachers;
+            this.students = students;
+            this.loadedAt = Instant.now();
+        }
+    }
+
     private final GoogleSheetsService sheetsService;
+    private final long refreshIntervalMs;
+
+    private final AtomicReference<AllowlistIndex> index = new AtomicReference<>();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong failedRefreshCount = new AtomicLong();
+    private volatile String lastRefreshError;
+    private volatile long lastRefreshDurationMs;
 
-    public AuthAllowlistService(GoogleSheetsService sheetsService) {
+    public AuthAllowlistService(GoogleSheetsService sheetsService,
+                                @Value("${evaluator.allowlist.refresh-interval-ms:300000}") long refreshIntervalMs) {
         this.sheetsService = sheetsService;
+        this.refreshIntervalMs = refreshIntervalMs;
     }
 
     public StudentTrackerRecord verifyUser(String googleEmail) throws Exception {
-        
+
         if (googleEmail == null || googleEmail.trim().isEmpty()) {
             return null;
         }
 
-        String normalizedEmail = googleEmail.trim();
-
-        // 1. VIP CHECK: Check the "Teachers" sheet
-        String teachersRange = "Teachers!A2:B";
-        List<List<Object>> teacherValues = sheetsService.getSheetData(teachersRange);
-        
-        if (teacherValues != null && !teacherValues.isEmpty()) {
-            for (List<Object> row : teacherValues) {
-                if (row == null || row.isEmpty()) continue;
-                
-                String sheetEmail = row.size() > 0 ? row.get(0).toString().trim() : "";
-                
-                if (sheetEmail.equalsIgnoreCase(normalizedEmail)) {
-                    // Strictly use the name from the Sheet (Column B)
-                    String teacherName = row.size() > 1 ? row.get(1).toString().trim() : "Unknown Teacher";
-                    
-                    return new StudentTrackerRecord(
-                            teacherName,
-                            "N/A", 
-                            "N/A", 
-                            "TEACHER"
-                    );
-                }
-            }
+        AllowlistIndex snapshot = index.get();
+        if (snapshot == null) {
+            // Only the very first logins after startup can land here, before the initial load finished
+            snapshot = loadIfMissing();
+        }
+
+        // Teachers take precedence over students, which the index already accounts for.
+        // Null means access denied: the email is in neither sheet.
+        return snapshot.byEmail.get(normalize(googleEmail));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Initial allowlist load failed, will retry on first login: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${evaluator.allowlist.refresh-interval-ms:300000}",
+               fixedDelayString = "${evaluator.allowlist.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep serving the previous index; staleness shows up in getStatus()
+            log.warn("Allowlist refresh failed, keeping index from {}: {}", loadedAt(), e.getMessage());
         }
+    }
+
+    /**
+     * Re-reads both tabs straight from the Sheets API and swaps in the new index.
+     */
+    public synchronized Map<String, Object> refresh() throws Exception {
+        long start = System.nanoTime();
+        try {
+            sheetsService.invalidate(TEACHERS_RANGE);
+            sheetsService.invalidate(STUDENTS_RANGE);
+
+            Map<String, StudentTrackerRecord> byEmail = new HashMap<>();
+            Map<String, StudentTrackerRecord> teacherEmails = new HashMap<>();
+            int students = indexStudents(sheetsService.getSheetData(STUDENTS_RANGE), byEmail);
+            int teachers = indexTeachers(sheetsService.getSheetData(TEACHERS_RANGE), teacherEmails);
 
-        // 2. STANDARD CHECK: Check the "Students" sheet
-        String studentsRange = "Students!A2:D";
-        List<List<Object>> studentValues = sheetsService.getSheetData(studentsRange);
-        
-        if (studentValues != null && !studentValues.isEmpty()) {
-            for (List<Object> row : studentValues) {
-                if (row == null || row.isEmpty()) continue;
-                
-                String sheetEmail = row.size() > 0 ? row.get(0).toString().trim() : "";
-                
-                if (sheetEmail.equalsIgnoreCase(normalizedEmail)) {
-                    // Strictly use the name from the Sheet (Column B)
-                    String studentName = row.size() > 1 ? row.get(1).toString().trim() : "Unknown Student";
-                    String section = row.size() > 2 ? row.get(2).toString().trim() : "";
-                    String teamCode = row.size() > 3 ? row.get(3).toString().trim() : "";
-                    
-                    return new StudentTrackerRecord(
-                            studentName,
-                            section,
-                            teamCode,
-                            "STUDENT"
-                    );
-                }
-            }
+            // VIP CHECK: a teacher listed in both tabs always logs in as a teacher
+            byEmail.putAll(teacherEmails);
+
+            index.set(new AllowlistIndex(byEmail, teachers, students));
+            refreshCount.incrementAndGet();
+            lastRefreshError = null;
+            log.info("Allowlist index refreshed: {} teachers, {} students", teachers, students);
+        } catch (Exception e) {
+            failedRefreshCount.incrementAndGet();
+            lastRefreshError = e.getMessage();
+            throw e;
+        } finally {
+            lastRefreshDurationMs = (System.nanoTime() - start) / 1_000_000;
         }
-        
-        // 3. Access Denied: Email not found in either sheet
-        return null; 
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        AllowlistIndex snapshot = index.get();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("loaded", snapshot != null);
+        status.put("loadedAt", snapshot != null ? snapshot.loadedAt.toString() : null);
+        long ageSeconds = snapshot != null ? Duration.between(snapshot.loadedAt, Instant.now()).toSeconds() : -1;
+        status.put("ageSeconds", ageSeconds);
+        status.put("stale", snapshot == null || ageSeconds * 1000 > 2 * refreshIntervalMs);
+        status.put("entries", snapshot != null ? snapshot.byEmail.size() : 0);
+        status.put("teachers", snapshot != null ? snapshot.teachers : 0);
+        status.put("students", snapshot != null ? snapshot.students : 0);
+        status.put("refreshIntervalMs", refreshIntervalMs);
+        status.put("refreshCount", refreshCount.get());
+        status.put("failedRefreshCount", failedRefreshCount.get());
+        status.put("lastRefreshDurationMs", lastRefreshDurationMs);
+        status.put("lastRefreshError", lastRefreshError);
+        return status;
+    }
+
+    private synchronized AllowlistIndex loadIfMissing() throws Exception {
+        if (index.get() == null) {
+            refresh();
+        }
+        return index.get();
+    }
+
+    private int indexTeachers(List<List<Object>> teacherValues, Map<String, StudentTrackerRecord> byEmail) {
+        int count = 0;
+        if (teacherValues == null) {
+            return count;
+        }
+
+        for (List<Object> row : teacherValues) {
+            if (row == null || row.isEmpty()) continue;
+
+            String sheetEmail = normalize(row.get(0).toString());
+            if (sheetEmail.isEmpty()) continue;
+
+            // Strictly use the name from the Sheet (Column B)
+            String teacherName = row.size() > 1 ? row.get(1).toString().trim() : "Unknown Teacher";
+
+            byEmail.putIfAbsent(sheetEmail, new StudentTrackerRecord(
+                    teacherName,
+                    "N/A",
+                    "N/A",
+                    "TEACHER"
+            ));
+            count++;
+        }
+        return count;
+    }
+
+    private int indexStudents(List<List<Object>> studentValues, Map<String, StudentTrackerRecord> byEmail) {
+        int count = 0;
+        if (studentValues == null) {
+            return count;
+        }
+
+        for (List<Object> row : studentValues) {
+            if (row == null || row.isEmpty()) continue;
+
+            String sheetEmail = normalize(row.get(0).toString());
+            if (sheetEmail.isEmpty()) continue;
+
+            // Strictly use the name from the Sheet (Column B)
+            String studentName = row.size() > 1 ? row.get(1).toString().trim() : "Unknown Student";
+            String section = row.size() > 2 ? row.get(2).toString().trim() : "";
+            String teamCode = row.size() > 3 ? row.get(3).toString().trim() : "";
+
+            // First row wins, same as the old top-to-bottom scan
+            byEmail.putIfAbsent(sheetEmail, new StudentTrackerRecord(
+                    studentName,
+                    section,
+                    teamCode,
+                    "STUDENT"
+            ));
+            count++;
+        }
+        return count;
+    }
+
+    private Instant loadedAt() {
+        AllowlistIndex snapshot = index.get();
+        return snapshot != null ? snapshot.loadedAt : null;
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,196 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.BatchJob;
+import com.ieee.evaluator.model.BatchJobItem;
+import com.ieee.evaluator.model.EvaluationBatch;
+import com.ieee.evaluator.model.EvaluationJob;
+import com.ieee.evaluator.model.EvaluationJobCount;
+import com.ieee.evaluator.model.Submission;
+import com.ieee.evaluator.repository.EvaluationBatchRepository;
+import com.ieee.evaluator.repository.EvaluationJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk evaluations. A batch is stored as an {@link EvaluationBatch} plus one
+ * {@link EvaluationJob} per file, so it survives restarts and its files are shared out
+ * between every running instance by the job queue. Progress is read back as per-status counts
+ * of the job rows; the rows themselves (with their results) are only loaded for one batch.
+ */
+@Service
+@Slf4j
+public class BatchEvaluationService {
+
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String CANCELLED = "CANCELLED";
+
+    private final AiService aiService;
+    private final SubmissionSyncService syncService;
+    private final EvaluationJobQueue jobQueue;
+    private final EvaluationJobWorker jobWorker;
+    private final EvaluationBatchRepository batchRepository;
+    private final EvaluationJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchEvaluationService(AiService aiService,
+                                  SubmissionSyncService syncService,
+                                  EvaluationJobQueue jobQueue,
+                                  EvaluationJobWorker jobWorker,
+                                  EvaluationBatchRepository batchRepository,
+                                  EvaluationJobRepository jobRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.aiService = aiService;
+        this.syncService = syncService;
+        this.jobQueue = jobQueue;
+        this.jobWorker = jobWorker;
+        this.batchRepository = batchRepository;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Queues every latest submission (optionally only one deliverable type, or only the given
+     * file IDs) for evaluation and returns the batch handle immediately.
+     */
+    public BatchJob submit(String model, String docType, Collection<String> fileIds) throws Exception {
+        if (model == null || aiService.resolveProvider(model) == null) {
+            throw new IllegalArgumentException("Model provider '" + model + "' is not supported.");
+        }
+
+        List<Submission> submissions = syncService.getLatestSubmissionRows();
+
+        EvaluationBatch batch = new EvaluationBatch();
+        batch.setId(UUID.randomUUID().toString());
+        batch.setModel(model);
+        batch.setDocType(docType);
+        batch.setStatus(RUNNING);
+        batch.setCreatedAt(LocalDateTime.now());
+
+        List<EvaluationJob> jobs = new ArrayList<>();
+        for (Submission submission : submissions) {
+            if (docType != null && !docType.equalsIgnoreCase(submission.getDocType())) continue;
+            if (fileIds != null && !fileIds.isEmpty() && !fileIds.contains(submission.getFileId())) continue;
+            jobs.add(jobQueue.newJob(batch.getId(), submission.getFileId(), submission.getName(), model, false));
+        }
+
+        List<EvaluationJob> saved = transactionTemplate.execute(tx -> {
+            batchRepository.save(batch);
+            return jobQueue.enqueueAll(jobs);
+        });
+        jobWorker.wakeUp();
+
+        log.info("Batch job {} queued {} files for model {}", batch.getId(), saved.size(), model);
+        return toView(batch, jobRepository.countByBatch(List.of(batch.getId())));
+    }
+
+    public Optional<BatchJob> getJob(String jobId) {
+        return batchRepository.findById(jobId)
+                .map(batch -> toView(batch, jobRepository.countByBatch(List.of(batch.getId()))));
+    }
+
+    /**
+     * The newest batches, with their progress counted in one grouped query.
+     */
+    public Collection<BatchJob> getJobs() {
+        List<EvaluationBatch> batches = batchRepository.findTop50ByOrderByCreatedAtDesc();
+        if (batches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<EvaluationJobCount>> counts = jobRepository
+                .countByBatch(batches.stream().map(EvaluationBatch::getId).toList()).stream()
+                .collect(Collectors.groupingBy(EvaluationJobCount::getBatchId));
+        return batches.stream()
+                .map(batch -> toView(batch, counts.getOrDefault(batch.getId(), List.of())))
+                .toList();
+    }
+
+    /**
+     * Every file of one batch, with its evaluation result or error.
+     */
+    public Optional<List<BatchJobItem>> getResults(String jobId) {
+        return batchRepository.findById(jobId)
+                .map(batch -> jobRepository.findByBatchIdOrderByIdAsc(batch.getId()).stream()
+                        .map(BatchEvaluationService::toItem)
+                        .toList());
+    }
+
+    /**
+     * Marks the batch as cancelled; files that have not started yet are skipped.
+     */
+    public Optional<BatchJob> cancel(String jobId) {
+        Optional<EvaluationBatch> found = batchRepository.findById(jobId);
+        found.ifPresent(batch -> {
+            if (RUNNING.equals(batch.getStatus())) {
+                LocalDateTime now = LocalDateTime.now();
+                batch.setStatus(CANCELLED);
+                batch.setCancelledAt(now);
+                batchRepository.save(batch);
+                jobRepository.cancelPending(batch.getId(), now);
+            }
+        });
+        return found.flatMap(batch -> getJob(batch.getId()));
+    }
+
+    private BatchJob toView(EvaluationBatch batch, List<EvaluationJobCount> counts) {
+        BatchJob view = new BatchJob();
+        view.setId(batch.getId());
+        view.setModel(batch.getModel());
+        view.setDocType(batch.getDocType());
+        view.setCreatedAt(batch.getCreatedAt());
+
+        LocalDateTime lastFinishedAt = null;
+        for (EvaluationJobCount count : counts) {
+            long total = count.getTotal();
+            view.setTotal(view.getTotal() + total);
+            switch (count.getStatus()) {
+                case EvaluationJob.SUCCEEDED -> view.setSucceeded(view.getSucceeded() + total);
+                // Cancelled files count as failed, as they do in the results
+                case EvaluationJob.FAILED, EvaluationJob.CANCELLED -> view.setFailed(view.getFailed() + total);
+                default -> { }
+            }
+            if (count.getLastFinishedAt() != null
+                    && (lastFinishedAt == null || count.getLastFinishedAt().isAfter(lastFinishedAt))) {
+                lastFinishedAt = count.getLastFinishedAt();
+            }
+        }
+
+        if (CANCELLED.equals(batch.getStatus())) {
+            view.setStatus(CANCELLED);
+            view.setFinishedAt(batch.getCancelledAt());
+        } else if (view.getPending() == 0) {
+            view.setStatus(COMPLETED);
+            view.setFinishedAt(lastFinishedAt != null ? lastFinishedAt : batch.getCreatedAt());
+        } else {
+            view.setStatus(RUNNING);
+        }
+        return view;
+    }
+
+    private static BatchJobItem toItem(EvaluationJob job) {
+        BatchJobItem item = new BatchJobItem(job.getFileId(), job.getFileName());
+        item.setJobId(job.getId());
+        item.setAttempts(job.getAttempts());
+        item.setStartedAt(job.getStartedAt());
+        item.setFinishedAt(job.getFinishedAt());
+        item.setResult(job.getResult());
+        item.setError(job.getLastError());
+        item.setStatus(switch (job.getStatus()) {
+            case EvaluationJob.PENDING -> job.getAttempts() > 0 ? "RETRYING" : "QUEUED";
+            case EvaluationJob.CANCELLED -> "FAILED"; // counted as failed, with "Job cancelled" as the error
+            default -> job.getStatus();
+        });
+        return item;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ieee.evaluator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Collects an OpenAI-compatible {@code stream: true} chat completion. Feed it the raw response
+ * lines; each {@code delta.content} piece is passed on to the listener and appended to the text.
+ */
+public class ChatCompletionStream implements Consumer<String> {
+
+    private static final String DATA_PREFIX = "data:";
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<String> onToken;
+    private final StringBuilder text = new StringBuilder();
+    private boolean done;
+
+    public ChatCompletionStream(ObjectMapper objectMapper, Consumer<String> onToken) {
+        this.objectMapper = objectMapper;
+        this.onToken = onToken;
+    }
+
+    @Override
+    public void accept(String line) {
+        // Blank lines separate events; lines starting with ':' are keep-alive comments
+        if (done || !line.startsWith(DATA_PREFIX)) {
+            return;
+        }
+
+        String data = line.substring(DATA_PREFIX.length()).trim();
+        if (data.equals("[DONE]")) {
+            done = true;
+            return;
+        }
+
+        JsonNode chunk;
+        try {
+            chunk = objectMapper.readTree(data);
+        } catch (Exception e) {
+            throw new UncheckedIOException(new IOException("Unreadable stream chunk: " + data, e));
+        }
+
+        if (chunk.has("error")) {
+            throw new IllegalStateException("Provider reported an error mid-stream: " + chunk.path("error").path("message").asText());
+        }
+
+        JsonNode choices = chunk.path("choices");
+        if (choices.isArray() && !choices.isEmpty()) {
+            String piece = choices.get(0).path("delta").path("content").asText("");
+            if (!piece.isEmpty()) {
+                text.append(piece);
+                onToken.accept(piece);
+            }
+        }
+    }
+
+    public String getText() {
+        return text.toString();
+    }
+}
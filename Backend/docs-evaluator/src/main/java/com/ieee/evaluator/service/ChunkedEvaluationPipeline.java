@@ -0,0 +1,258 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.DocumentChunk;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Sits in front of {@link AiProvider#analyze(String)}. Documents that fit in the provider's input
+ * budget go straight through; larger ones are split along their section headings, each chunk is
+ * reviewed in parallel (map), and the notes are merged into the usual report (reduce).
+ */
+@Service
+@Slf4j
+public class ChunkedEvaluationPipeline {
+
+    // Room for the "### Part N: " heading and spacing around each part's notes
+    private static final int HEADING_CHARS = 32;
+
+    private final SectionChunker chunker;
+    private final EvaluatorMetrics metrics;
+    private final ExecutorService executor = EvaluatorMetrics.propagating(Executors.newVirtualThreadPerTaskExecutor());
+    private final boolean enabled;
+    private final int maxDocumentChars;
+    private final int parallelism;
+
+    public ChunkedEvaluationPipeline(SectionChunker chunker,
+                                     EvaluatorMetrics metrics,
+                                     @Value("${evaluator.chunking.enabled:true}") boolean enabled,
+                                     @Value("${evaluator.chunking.max-document-chars:300000}") int maxDocumentChars,
+                                     @Value("${evaluator.chunking.parallelism:4}") int parallelism) {
+        this.chunker = chunker;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.maxDocumentChars = maxDocumentChars;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * How much text to extract for this provider. With chunking on we read far past the
+     * provider's single-request budget, up to the overall document cap.
+     */
+    public int extractionBudget(AiProvider provider) {
+        int budget = provider.getMaxInputChars();
+        if (!enabled || budget < 0) {
+            return budget;
+        }
+        return Math.max(budget, maxDocumentChars);
+    }
+
+    public String evaluate(AiProvider provider, String text) throws Exception {
+        String providerName = provider.getProviderName();
+        int chunkSize = provider.getMaxInputChars();
+        if (!enabled || chunkSize < 0 || text.length() <= chunkSize) {
+            return stage("single", providerName, () -> provider.analyze(text));
+        }
+
+        List<DocumentChunk> chunks = split(text, chunkSize);
+        if (chunks.size() == 1) {
+            return stage("single", providerName, () -> provider.analyze(chunks.get(0).getText()));
+        }
+
+        List<String> notes = mapChunks(provider, text, chunks);
+
+        // 2. REDUCE: merge the section notes into Summary / Strengths / Weaknesses / Conclusion
+        String prompt = mergePrompt(provider, chunks, notes);
+        return stage("reduce", providerName, () -> provider.complete(prompt));
+    }
+
+    /**
+     * Streaming variant of {@link #evaluate}. Single-request documents stream straight away; for
+     * chunked documents the section reviews run as usual and only the final merge is streamed.
+     */
+    public String evaluateStreaming(AiProvider provider, String text, Consumer<String> onToken) throws Exception {
+        String providerName = provider.getProviderName();
+        int chunkSize = provider.getMaxInputChars();
+        if (!enabled || chunkSize < 0 || text.length() <= chunkSize) {
+            String input = chunkSize >= 0 && text.length() > chunkSize
+                    ? text.substring(0, chunkSize) + "...[truncated]"
+                    : text;
+            String prompt = buildPrompt("analysis", () -> EvaluationPrompts.analysisPrompt(input));
+            return stage("single", providerName, () -> provider.completeStreaming(prompt, onToken));
+        }
+
+        List<DocumentChunk> chunks = split(text, chunkSize);
+        if (chunks.size() == 1) {
+            String prompt = buildPrompt("analysis", () -> EvaluationPrompts.analysisPrompt(chunks.get(0).getText()));
+            return stage("single", providerName, () -> provider.completeStreaming(prompt, onToken));
+        }
+
+        List<String> notes = mapChunks(provider, text, chunks);
+        String prompt = mergePrompt(provider, chunks, notes);
+        return stage("reduce", providerName, () -> provider.completeStreaming(prompt, onToken));
+    }
+
+    private List<DocumentChunk> split(String text, int chunkSize) {
+        return metrics.time("evaluator.pipeline.chunk", () -> chunker.split(text, chunkSize));
+    }
+
+    private String buildPrompt(String kind, EvaluatorMetrics.TimedCall<String, RuntimeException> builder) {
+        return metrics.time("evaluator.prompt.build", builder, "kind", kind);
+    }
+
+    /**
+     * Times one pipeline stage; a report that comes back as an error string counts as an error.
+     */
+    private String stage(String stage, String provider, EvaluatorMetrics.TimedCall<String, Exception> call) throws Exception {
+        EvaluatorMetrics.Sample sample = metrics.start("evaluator.pipeline.stage", "stage", stage, "provider", provider);
+        String outcome = EvaluatorMetrics.ERROR;
+        try {
+            String result = call.call();
+            outcome = EvaluatorMetrics.outcomeOf(result);
+            return result;
+        } finally {
+            metrics.stop(sample, outcome);
+        }
+    }
+
+    private List<String> mapChunks(AiProvider provider, String text, List<DocumentChunk> chunks) throws Exception {
+        log.info("Evaluating {} chars with {} as {} section chunks", text.length(), provider.getProviderName(), chunks.size());
+
+        // 1. MAP: one review per chunk
+        List<String> prompts = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            int part = i + 1;
+            prompts.add(buildPrompt("section", () -> EvaluationPrompts.sectionPrompt(chunks.get(part - 1), part, chunks.size())));
+        }
+        return completeAll(provider, "map", prompts);
+    }
+
+    /**
+     * Builds the reduce prompt, keeping it inside the provider's input budget. While the notes
+     * are too long for one request, adjacent parts are condensed in groups by another round of
+     * model calls; a single note too long on its own is cut.
+     */
+    private String mergePrompt(AiProvider provider, List<DocumentChunk> chunks, List<String> notes) throws Exception {
+        int budget = provider.getMaxInputChars();
+        List<DocumentChunk> parts = chunks;
+        List<String> partNotes = notes;
+        while (true) {
+            List<DocumentChunk> mergeParts = parts;
+            List<String> mergeNotes = partNotes;
+            String prompt = buildPrompt("merge", () -> EvaluationPrompts.mergePrompt(mergeParts, mergeNotes));
+            if (budget < 0 || prompt.length() <= budget) {
+                return prompt;
+            }
+
+            // Cap every note so any two parts fit one condense request; each round then at least halves the parts
+            int promptChars = EvaluationPrompts.condensePrompt(List.of(), List.of()).length();
+            int headingChars = parts.stream().mapToInt(part -> part.getTitle().length()).max().orElse(0) + HEADING_CHARS;
+            int noteCap = Math.max((budget - promptChars) / 2 - headingChars, 0);
+            partNotes = partNotes.stream()
+                    .map(note -> note.length() > noteCap ? note.substring(0, noteCap) + "...[truncated]" : note)
+                    .toList();
+            if (parts.size() == 1) {
+                List<String> cappedNotes = partNotes;
+                return buildPrompt("merge", () -> EvaluationPrompts.mergePrompt(mergeParts, cappedNotes));
+            }
+
+            List<List<Integer>> groups = group(parts, partNotes, budget - promptChars);
+            List<DocumentChunk> condensedParts = new ArrayList<>();
+            List<String> prompts = new ArrayList<>();
+            for (List<Integer> group : groups) {
+                List<DocumentChunk> groupParts = group.stream().map(parts::get).toList();
+                List<String> groupNotes = group.stream().map(partNotes::get).toList();
+                String first = groupParts.get(0).getTitle();
+                String last = groupParts.get(groupParts.size() - 1).getTitle();
+                condensedParts.add(new DocumentChunk(first.equals(last) ? first : first + " – " + last, ""));
+                prompts.add(buildPrompt("condense", () -> EvaluationPrompts.condensePrompt(groupParts, groupNotes)));
+            }
+            log.info("Merge prompt for {} is {} chars over its {} char budget, condensing {} parts into {}",
+                    provider.getProviderName(), prompt.length() - budget, budget, parts.size(), groups.size());
+            partNotes = completeAll(provider, "condense", prompts);
+            parts = condensedParts;
+        }
+    }
+
+    /**
+     * Splits the parts into runs of adjacent parts whose notes fit {@code budget} together,
+     * with at least two parts per run so that condensing always makes progress.
+     */
+    private static List<List<Integer>> group(List<DocumentChunk> parts, List<String> notes, int budget) {
+        List<List<Integer>> groups = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        int length = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            int size = parts.get(i).getTitle().length() + notes.get(i).length() + HEADING_CHARS;
+            if (current.size() >= 2 && length + size > budget) {
+                groups.add(current);
+                current = new ArrayList<>();
+                length = 0;
+            }
+            current.add(i);
+            length += size;
+        }
+        // A lone trailing part joins the previous run rather than being condensed on its own
+        if (current.size() == 1 && !groups.isEmpty()) {
+            groups.get(groups.size() - 1).addAll(current);
+        } else {
+            groups.add(current);
+        }
+        return groups;
+    }
+
+    /**
+     * Sends every prompt to the provider, at most {@code parallelism} in flight for this document,
+     * and returns the answers in order. If one call fails or the caller is interrupted, the calls
+     * still running are cancelled.
+     */
+    private List<String> completeAll(AiProvider provider, String stage, List<String> prompts) throws Exception {
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<String>> futures = new ArrayList<>();
+        for (String prompt : prompts) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return stage(stage, provider.getProviderName(), () -> provider.complete(prompt));
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<String> answers = new ArrayList<>();
+        boolean collected = false;
+        try {
+            for (Future<String> future : futures) {
+                answers.add(future.get());
+            }
+            collected = true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            if (!collected) {
+                futures.forEach(f -> f.cancel(true));
+            }
+        }
+        return answers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
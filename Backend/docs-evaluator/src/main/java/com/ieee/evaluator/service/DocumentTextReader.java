@@ -0,0 +1,65 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.ExtractedText;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.sax.BodyContentHandler;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turns downloaded file content into text. Holds no Drive or Spring state, so the extraction
+ * hot path can be exercised on its own (see the docs-evaluator-benchmarks module).
+ */
+public class DocumentTextReader {
+
+    // AutoDetectParser is thread-safe and expensive to build (it loads every parser via SPI), so share one
+    private final AutoDetectParser parser = new AutoDetectParser();
+
+    /**
+     * Uses Apache Tika to magically rip the text out of binary files like PDFs and DOCX.
+     * Tika streams the document, so hitting the write limit aborts the parse (and the download
+     * feeding it) instead of extracting text we would throw away.
+     */
+    public ExtractedText extractWithTika(InputStream inputStream, int maxChars) throws Exception {
+        // -1 disables the character limit so it can read massive documents
+        BodyContentHandler handler = new BodyContentHandler(maxChars);
+        Metadata metadata = new Metadata();
+        ParseContext context = new ParseContext();
+
+        // Tika automatically detects the exact file format and extracts the plain text
+        try {
+            parser.parse(inputStream, handler, metadata, context);
+        } catch (Exception e) {
+            if (!WriteLimitReachedException.isWriteLimitReached(e)) {
+                throw e;
+            }
+            return new ExtractedText(handler.toString(), true);
+        }
+        return new ExtractedText(handler.toString(), false);
+    }
+
+    /**
+     * Reads an exported plain-text stream up to the character budget without buffering the rest.
+     */
+    public ExtractedText readText(InputStream inputStream, int maxChars) throws Exception {
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            if (maxChars >= 0 && text.length() + read > maxChars) {
+                text.append(buffer, 0, maxChars - text.length());
+                return new ExtractedText(text.toString(), true);
+            }
+            text.append(buffer, 0, read);
+        }
+        return new ExtractedText(text.toString(), false);
+    }
+}
@@ -2,41 +2,204 @@ package com.ieee.evaluator.service;
 
 import com.ieee.evaluator.model.SystemSetting;
 import com.ieee.evaluator.repository.SystemSettingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves settings from an in-memory snapshot of the Supabase settings table instead of querying
+ * it on every lookup. The snapshot is replaced as a whole on every reload and on every local
+ * update; other nodes pick up changes on the periodic refresh or, when enabled, a NOTIFY.
+ */
 @Service
+@Slf4j
 public class DynamicConfigService {
 
+    public static final String NOTIFY_CHANNEL = "evaluator_settings";
+
+    /**
+     * Immutable view of the settings table. Parsed numbers are memoized per snapshot, so they
+     * are computed once per reload rather than once per call.
+     */
+    private static final class ConfigSnapshot {
+        private final Map<String, String> values;
+        private final Map<String, Optional<Integer>> ints = new ConcurrentHashMap<>();
+        private final Instant loadedAt = Instant.now();
+
+        private ConfigSnapshot(Map<String, String> values) {
+            this.values = Map.copyOf(values);
+        }
+    }
+
     private final SystemSettingRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean notifyEnabled;
+
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong failedReloadCount = new AtomicLong();
+    private volatile String lastReloadError;
 
-    public DynamicConfigService(SystemSettingRepository repository) {
+    public DynamicConfigService(SystemSettingRepository repository, JdbcTemplate jdbcTemplate,
+                                @Value("${evaluator.settings.notify.enabled:false}") boolean notifyEnabled) {
         this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyEnabled = notifyEnabled;
     }
 
     /**
-     * Fetches a string value directly from the Supabase settings table.
+     * Fetches a string value from the cached settings snapshot.
      */
     public String getValue(String key) {
-        return repository.findById(key)
-                .map(SystemSetting::getValue)
-                .orElseThrow(() -> new RuntimeException("Missing configuration key in database: " + key));
+        String value = current().values.get(key);
+        if (value == null) {
+            throw new RuntimeException("Missing configuration key in database: " + key);
+        }
+        return value;
     }
 
     /**
      * Helper method to automatically convert numeric settings (like column numbers) into Integers.
      */
     public int getIntValue(String key) {
-        return Integer.parseInt(getValue(key));
+        // Missing or malformed values fail the same way as before
+        return parsedInt(key).orElseGet(() -> Integer.parseInt(getValue(key).trim()));
+    }
+
+    /**
+     * Like {@link #getIntValue(String)}, but returns {@code defaultValue} when the key is missing,
+     * blank or not a number.
+     */
+    public int getInt(String key, int defaultValue) {
+        return parsedInt(key).orElse(defaultValue);
     }
 
     /**
      * Updates an existing setting or creates a new one if it doesn't exist.
      */
-    public void updateSetting(String key, String newValue) {
+    public synchronized void updateSetting(String key, String newValue) {
         SystemSetting setting = repository.findById(key)
                 .orElse(new SystemSetting());
         setting.setKey(key);
         setting.setValue(newValue);
         repository.save(setting);
+
+        // Swap in a snapshot carrying the new value so this node sees it immediately
+        snapshot.updateAndGet(previous -> {
+            Map<String, String> values = previous != null ? new HashMap<>(previous.values) : new HashMap<>();
+            values.put(key, newValue);
+            return new ConfigSnapshot(values);
+        });
+
+        if (notifyEnabled) {
+            try {
+                // NOTIFY goes through the transaction pooler fine; only LISTEN needs a direct connection
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, NOTIFY_CHANNEL, key);
+            } catch (Exception e) {
+                log.warn("Could not publish settings change for {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Initial settings load failed, will retry on first lookup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the whole settings table and swaps in the new snapshot.
+     */
+    public synchronized Map<String, Object> reload() {
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (SystemSetting setting : repository.findAll()) {
+                if (setting.getValue() != null) {
+                    values.put(setting.getKey(), setting.getValue());
+                }
+            }
+            snapshot.set(new ConfigSnapshot(values));
+            reloadCount.incrementAndGet();
+            lastReloadError = null;
+            log.debug("Settings snapshot reloaded: {} keys", values.size());
+        } catch (RuntimeException e) {
+            failedReloadCount.incrementAndGet();
+            lastReloadError = e.getMessage();
+            throw e;
+        }
+        return getStatus();
+    }
+
+    @Scheduled(initialDelayString = "${evaluator.settings.refresh-interval-ms:60000}",
+               fixedDelayString = "${evaluator.settings.refresh-interval-ms:60000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            log.warn("Settings reload failed, keeping snapshot from {}: {}", loadedAt(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        ConfigSnapshot config = snapshot.get();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("loaded", config != null);
+        status.put("loadedAt", config != null ? config.loadedAt.toString() : null);
+        status.put("ageSeconds", config != null ? Duration.between(config.loadedAt, Instant.now()).toSeconds() : -1);
+        status.put("keys", config != null ? config.values.size() : 0);
+        status.put("notifyEnabled", notifyEnabled);
+        status.put("reloadCount", reloadCount.get());
+        status.put("failedReloadCount", failedReloadCount.get());
+        status.put("lastReloadError", lastReloadError);
+        return status;
+    }
+
+    private ConfigSnapshot current() {
+        ConfigSnapshot config = snapshot.get();
+        if (config == null) {
+            // First lookup after startup loads the table synchronously
+            synchronized (this) {
+                if (snapshot.get() == null) {
+                    reload();
+                }
+            }
+            config = snapshot.get();
+        }
+        return config;
+    }
+
+    private Optional<Integer> parsedInt(String key) {
+        ConfigSnapshot config = current();
+        return config.ints.computeIfAbsent(key, k -> {
+            String value = config.values.get(k);
+            try {
+                return (value != null && !value.trim().isEmpty()) ? Optional.of(Integer.parseInt(value.trim())) : Optional.empty();
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    private Instant loadedAt() {
+        ConfigSnapshot config = snapshot.get();
+        return config != null ? config.loadedAt : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationHistory;
+import com.ieee.evaluator.repository.EvaluationHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off data migration for rows saved before evaluation_history had teamCode/section/docType:
+ * parses them out of fileName, or looks the fileId up in the synced submissions when the name is
+ * not a submission label. Rows matched by neither get an empty teamCode so they are not picked up
+ * again on the next start.
+ */
+@Component
+@Slf4j
+public class EvaluationHistoryBackfill {
+
+    private final EvaluationHistoryRepository historyRepository;
+    private final EvaluationHistoryWriter historyWriter;
+
+    public EvaluationHistoryBackfill(EvaluationHistoryRepository historyRepository, EvaluationHistoryWriter historyWriter) {
+        this.historyRepository = historyRepository;
+        this.historyWriter = historyWriter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int updated = 0;
+        try {
+            List<EvaluationHistory> batch;
+            while (!(batch = historyRepository.findTop500ByTeamCodeIsNull()).isEmpty()) {
+                for (EvaluationHistory history : batch) {
+                    historyWriter.applySubmissionColumns(history, history.getFileId(), history.getFileName());
+                    if (history.getTeamCode() == null) {
+                        history.setTeamCode("");
+                    }
+                }
+                historyRepository.saveAll(batch);
+                updated += batch.size();
+            }
+        } catch (Exception e) {
+            log.warn("Evaluation history backfill stopped after {} rows: {}", updated, e.getMessage());
+            return;
+        }
+
+        if (updated > 0) {
+            log.info("Backfilled teamCode/section/docType on {} evaluation history rows", updated);
+        }
+    }
+}
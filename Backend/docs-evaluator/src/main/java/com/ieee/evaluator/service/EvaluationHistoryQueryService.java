@@ -0,0 +1,173 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationHistoryFacet;
+import com.ieee.evaluator.model.EvaluationHistorySummary;
+import com.ieee.evaluator.model.SubmissionLabel;
+import com.ieee.evaluator.repository.EvaluationHistoryRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+public class EvaluationHistoryQueryService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final EvaluationHistoryRepository historyRepository;
+
+    public EvaluationHistoryQueryService(EvaluationHistoryRepository historyRepository) {
+        this.historyRepository = historyRepository;
+    }
+
+    /**
+     * Report list filters; blank values match everything. Send the same filter with every cursor
+     * of one listing, since the cursor only records where the previous page ended.
+     *
+     * @param status "sent", "pending" or blank
+     * @param search case-insensitive substring of the file name
+     */
+    public record HistoryFilter(String status, String docType, String section, String teamCode, String search) {
+    }
+
+    /**
+     * One page of history summaries matching {@code filter}, newest first. Pass the previous
+     * page's {@code nextCursor} to continue; it is null on the last page. Each page is an index
+     * range scan on (evaluated_at, id), so the cost does not grow with how far back the client has paged.
+     */
+    public Map<String, Object> getPage(String cursor, int limit, HistoryFilter filter) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        String status = statusFilter(filter.status());
+        String docType = isBlank(filter.docType()) ? "" : filter.docType().trim().toUpperCase(Locale.ROOT);
+        String teamCode = isBlank(filter.teamCode()) ? "" : SubmissionLabel.normalizeTeamCode(filter.teamCode());
+        List<String> sections = isBlank(filter.section()) ? List.of("") : sectionSpellings(filter.section());
+        String search = isBlank(filter.search()) ? "" : likePattern(filter.search());
+
+        // Ask for one extra row to know whether another page exists
+        List<EvaluationHistorySummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = historyRepository.findSummaryPage(status, docType, teamCode, sections, search, Limit.of(pageSize + 1));
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            rows = historyRepository.findSummaryPageAfter(position.evaluatedAt(), position.id(),
+                    status, docType, teamCode, sections, search, Limit.of(pageSize + 1));
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<EvaluationHistorySummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            EvaluationHistorySummary last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getEvaluatedAt(), last.getId());
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", nextCursor);
+        return page;
+    }
+
+    /**
+     * Totals and the distinct sections, team codes and document types over the whole history, for
+     * the report filters. Sections are normalized the same way the section filter compares them.
+     */
+    public Map<String, Object> getFacets() {
+        long total = 0;
+        long sent = 0;
+        Set<String> sections = new TreeSet<>();
+        Set<String> teamCodes = new TreeSet<>();
+        Set<String> docTypes = new TreeSet<>();
+
+        for (EvaluationHistoryFacet facet : historyRepository.countFacets()) {
+            total += facet.getTotal();
+            if (Boolean.TRUE.equals(facet.getIsSent())) {
+                sent += facet.getTotal();
+            }
+            addIfPresent(sections, SubmissionLabel.normalizeSection(facet.getSection()));
+            addIfPresent(teamCodes, facet.getTeamCode());
+            addIfPresent(docTypes, facet.getDocType());
+        }
+
+        Map<String, Object> facets = new LinkedHashMap<>();
+        facets.put("total", total);
+        facets.put("sent", sent);
+        facets.put("pending", total - sent);
+        facets.put("sections", List.copyOf(sections));
+        facets.put("teamCodes", List.copyOf(teamCodes));
+        facets.put("docTypes", List.copyOf(docTypes));
+        return facets;
+    }
+
+    /**
+     * Every file that has at least one saved evaluation, however far back.
+     */
+    public List<String> getEvaluatedFileIds() {
+        return historyRepository.findEvaluatedFileIds();
+    }
+
+    private static String statusFilter(String status) {
+        if (isBlank(status)) {
+            return "";
+        }
+        String normalized = status.trim().toLowerCase(Locale.ROOT);
+        if (!normalized.equals("sent") && !normalized.equals("pending")) {
+            throw new IllegalArgumentException("Unknown history status: " + status);
+        }
+        return normalized;
+    }
+
+    // Stored sections predate normalization, so match every spelling that normalizes to the requested one
+    static List<String> sectionSpellings(String section) {
+        String normalized = SubmissionLabel.normalizeSection(section);
+        if (normalized.matches("G0\\d")) {
+            char digit = normalized.charAt(2);
+            return List.of(normalized, "GO" + digit, "G" + digit);
+        }
+        return List.of(normalized);
+    }
+
+    static String likePattern(String search) {
+        String escaped = search.trim().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    private static void addIfPresent(Set<String> values, String value) {
+        if (!isBlank(value)) {
+            values.add(value);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    static String encodeCursor(LocalDateTime evaluatedAt, long id) {
+        String position = evaluatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CursorPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            return new CursorPosition(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor", e);
+        }
+    }
+
+    record CursorPosition(LocalDateTime evaluatedAt, long id) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationHistory;
+import com.ieee.evaluator.model.SubmissionLabel;
+import com.ieee.evaluator.repository.EvaluationHistoryRepository;
+import com.ieee.evaluator.repository.SubmissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records evaluation results as one history row per file. The read-modify-write runs in a
+ * transaction holding a Postgres advisory lock on the fileId, so two evaluations finishing
+ * together cannot both insert a row; the entity's version column catches a concurrent teacher
+ * edit, in which case the upsert is re-read and retried.
+ */
+@Service
+@Slf4j
+public class EvaluationHistoryWriter {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final EvaluationHistoryRepository historyRepository;
+    private final SubmissionRepository submissionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final EvaluatorMetrics metrics;
+
+    public EvaluationHistoryWriter(EvaluationHistoryRepository historyRepository,
+                                   SubmissionRepository submissionRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   JdbcTemplate jdbcTemplate,
+                                   EvaluatorMetrics metrics) {
+        this.historyRepository = historyRepository;
+        this.submissionRepository = submissionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param fromCache the result was served from the result cache; it only creates a row for a
+     *                  file without history and never replaces an existing one, which may hold a
+     *                  newer report or the teacher's feedback
+     */
+    public void save(String fileId, String fileName, String aiModel, boolean textTruncated, String result, boolean fromCache) {
+        metrics.time("evaluator.history.save", () -> {
+            saveWithRetry(fileId, fileName, aiModel, textTruncated, result, fromCache);
+            return null;
+        }, "cached", String.valueOf(fromCache));
+    }
+
+    private void saveWithRetry(String fileId, String fileName, String aiModel, boolean textTruncated, String result, boolean fromCache) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> upsert(fileId, fileName, aiModel, textTruncated, result, fromCache));
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("History row for {} changed while saving, retrying ({}/{})", fileId, attempt, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    private void upsert(String fileId, String fileName, String aiModel, boolean textTruncated, String result, boolean fromCache) {
+        // Transaction-scoped, so it is released on commit and works through the transaction pooler
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext(?))", "evaluation_history:" + fileId);
+
+        EvaluationHistory history = historyRepository
+                .findTopByFileIdOrderByEvaluatedAtDesc(fileId)
+                .orElseGet(EvaluationHistory::new);
+
+        if (fromCache && history.getId() != null) {
+            return;
+        }
+        history.setFileId(fileId);
+        history.setFileName(fileName);
+        history.setModelUsed(aiModel);
+        history.setEvaluationResult(result);
+        history.setEvaluatedAt(LocalDateTime.now());
+        history.setIsSent(false);
+        history.setTeacherFeedback(null);
+        history.setTextTruncated(textTruncated);
+        applySubmissionColumns(history, fileId, fileName);
+        historyRepository.saveAndFlush(history);
+    }
+
+    /**
+     * Fills teamCode/section/docType from the submission label, or from the synced submission
+     * when the frontend sent a name that is not a label. Leaves them untouched when neither is known.
+     */
+    void applySubmissionColumns(EvaluationHistory history, String fileId, String fileName) {
+        SubmissionLabel label = SubmissionLabel.parse(fileName);
+        if (label != null) {
+            history.setTeamCode(label.getTeamCode());
+            history.setSection(label.getSection());
+            history.setDocType(label.getDocType());
+            return;
+        }
+
+        submissionRepository.findFirstByFileIdOrderByRowIndexDesc(fileId).ifPresent(submission -> {
+            history.setTeamCode(SubmissionLabel.normalizeTeamCode(submission.getTeamCode()));
+            history.setSection(submission.getSection());
+            history.setDocType(submission.getDocType());
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationJob;
+import com.ieee.evaluator.repository.EvaluationJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Durable queue of evaluations in the evaluation_job table. Jobs are claimed with
+ * {@code FOR UPDATE SKIP LOCKED} and held under a lease; a job whose worker died is claimed
+ * again once the lease runs out. Failures are retried with exponential backoff up to
+ * {@code max-attempts}.
+ */
+@Service
+@Slf4j
+public class EvaluationJobQueue {
+
+    private final EvaluationJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long leaseMs;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    // Identifies this instance's claims; unique per JVM so a restarted node never inherits old leases
+    private final String owner;
+
+    public EvaluationJobQueue(EvaluationJobRepository jobRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${evaluator.jobs.max-attempts:4}") int maxAttempts,
+                              @Value("${evaluator.jobs.lease-ms:300000}") long leaseMs,
+                              @Value("${evaluator.jobs.retry-base-ms:30000}") long retryBaseMs,
+                              @Value("${evaluator.jobs.retry-max-ms:900000}") long retryMaxMs) {
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.leaseMs = leaseMs;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public EvaluationJob newJob(String batchId, String fileId, String fileName, String model, boolean force) {
+        EvaluationJob job = new EvaluationJob();
+        job.setBatchId(batchId);
+        job.setFileId(fileId);
+        job.setFileName(fileName);
+        job.setModel(model);
+        job.setForce(force);
+        job.setStatus(EvaluationJob.PENDING);
+        job.setMaxAttempts(maxAttempts);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setAvailableAt(job.getCreatedAt());
+        return job;
+    }
+
+    public List<EvaluationJob> enqueueAll(List<EvaluationJob> jobs) {
+        return jobRepository.saveAll(jobs);
+    }
+
+    public Optional<EvaluationJob> find(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Claims up to {@code limit} due jobs for this instance. Jobs that have already used all their
+     * attempts (their last worker died mid-run) are failed here instead of being handed out.
+     */
+    public List<EvaluationJob> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EvaluationJob> locked = jobRepository.lockClaimable(now, limit);
+            List<EvaluationJob> claimed = new ArrayList<>();
+
+            for (EvaluationJob job : locked) {
+                if (EvaluationJob.RUNNING.equals(job.getStatus())) {
+                    log.warn("Lease on evaluation job {} held by {} expired, reclaiming", job.getId(), job.getLeaseOwner());
+                }
+                if (job.getAttempts() >= job.getMaxAttempts()) {
+                    job.setStatus(EvaluationJob.FAILED);
+                    job.setLastError("Gave up after " + job.getAttempts() + " attempts"
+                            + (job.getLastError() != null ? ": " + job.getLastError() : ""));
+                    job.setFinishedAt(now);
+                    job.setLeaseOwner(null);
+                    job.setLeaseExpiresAt(null);
+                    continue;
+                }
+                job.setStatus(EvaluationJob.RUNNING);
+                job.setAttempts(job.getAttempts() + 1);
+                job.setLeaseOwner(owner);
+                job.setLeaseExpiresAt(now.plusNanos(leaseMs * 1_000_000));
+                job.setStartedAt(now);
+                claimed.add(job);
+            }
+            jobRepository.saveAll(locked);
+            return claimed;
+        });
+    }
+
+    /**
+     * Extends the leases of jobs this instance is still working on.
+     */
+    public void renew(Collection<Long> jobIds) {
+        if (!jobIds.isEmpty()) {
+            jobRepository.renewLeases(jobIds, owner, LocalDateTime.now().plusNanos(leaseMs * 1_000_000));
+        }
+    }
+
+    public void succeed(EvaluationJob job, String result) {
+        settle(jobRepository.finish(job.getId(), owner, EvaluationJob.SUCCEEDED, result, null, LocalDateTime.now()), job);
+    }
+
+    /**
+     * Records a failed attempt: retried after a backoff if {@code retryable} and attempts remain,
+     * otherwise the job fails for good.
+     */
+    public void fail(EvaluationJob job, String error, boolean retryable) {
+        if (retryable && job.getAttempts() < job.getMaxAttempts()) {
+            long backoffMs = Math.min(retryMaxMs, retryBaseMs << Math.min(job.getAttempts() - 1, 20));
+            LocalDateTime availableAt = LocalDateTime.now().plusNanos(backoffMs * 1_000_000);
+            log.info("Evaluation job {} attempt {} failed, retrying in {} ms: {}", job.getId(), job.getAttempts(), backoffMs, error);
+            settle(jobRepository.reschedule(job.getId(), owner, error, availableAt), job);
+            return;
+        }
+        settle(jobRepository.finish(job.getId(), owner, EvaluationJob.FAILED, null, error, LocalDateTime.now()), job);
+    }
+
+    /**
+     * Hands a job back without waiting for a backoff, e.g. because this instance is shutting down.
+     */
+    public void release(EvaluationJob job, String reason) {
+        jobRepository.reschedule(job.getId(), owner, reason, LocalDateTime.now());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        for (Object[] row : jobRepository.countByStatus()) {
+            counts.put((String) row[0], row[1]);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("owner", owner);
+        stats.put("jobs", counts);
+        return stats;
+    }
+
+    private void settle(int updated, EvaluationJob job) {
+        if (updated == 0) {
+            // Our lease expired and another worker took the job over; its outcome wins
+            log.warn("Evaluation job {} was reclaimed by another worker before this one finished", job.getId());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
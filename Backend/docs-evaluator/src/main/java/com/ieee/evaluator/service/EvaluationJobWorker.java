@@ -0,0 +1,237 @@
+package com.ieee.evaluator.service;
+
+import com.google.api.services.drive.model.File;
+import com.ieee.evaluator.model.EvaluationJob;
+import com.ieee.evaluator.model.ExtractedText;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs jobs from the {@link EvaluationJobQueue}. A poller claims as many jobs as there are free
+ * slots, looks up their Drive metadata in one batch, and runs each on a virtual thread:
+ * extraction (limited separately so we do not hammer the Drive API), then the model call, with
+ * the report saved to history by {@link AiService}.
+ */
+@Service
+@Slf4j
+public class EvaluationJobWorker {
+
+    private final EvaluationJobQueue queue;
+    private final AiService aiService;
+    private final GoogleDocsService docsService;
+    private final DriveMetadataResolver metadataResolver;
+    private final EvaluatorMetrics metrics;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore slots;
+    private final Semaphore drivePermits;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final Map<Long, EvaluationJob> running = new ConcurrentHashMap<>();
+    private volatile Thread poller;
+
+    public EvaluationJobWorker(EvaluationJobQueue queue,
+                               AiService aiService,
+                               GoogleDocsService docsService,
+                               DriveMetadataResolver metadataResolver,
+                               EvaluatorMetrics metrics,
+                               @Value("${evaluator.jobs.enabled:true}") boolean enabled,
+                               @Value("${evaluator.jobs.max-concurrency:16}") int maxConcurrency,
+                               @Value("${evaluator.jobs.drive-concurrency:4}") int driveConcurrency,
+                               @Value("${evaluator.jobs.poll-interval-ms:2000}") long pollIntervalMs) {
+        this.queue = queue;
+        this.aiService = aiService;
+        this.docsService = docsService;
+        this.metadataResolver = metadataResolver;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.slots = new Semaphore(Math.max(1, maxConcurrency), true);
+        this.drivePermits = new Semaphore(Math.max(1, driveConcurrency), true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Evaluation job worker disabled; jobs will wait for another instance");
+            return;
+        }
+        Thread thread = new Thread(this::poll, "evaluation-job-poller");
+        thread.setDaemon(true);
+        // Assigned before start: poll() exits as soon as it is no longer the registered poller
+        poller = thread;
+        thread.start();
+    }
+
+    /**
+     * Polls immediately instead of at the next interval, e.g. right after jobs were enqueued here.
+     */
+    public void wakeUp() {
+        wakeUp.release();
+    }
+
+    @Scheduled(initialDelayString = "${evaluator.jobs.lease-renew-ms:60000}",
+               fixedDelayString = "${evaluator.jobs.lease-renew-ms:60000}")
+    public void renewLeases() {
+        try {
+            queue.renew(Set.copyOf(running.keySet()));
+        } catch (Exception e) {
+            log.warn("Could not renew evaluation job leases: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = poller;
+        poller = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        // Interrupted jobs drop out of "running" as they unwind, so take the list first
+        List<EvaluationJob> unfinished = List.copyOf(running.values());
+        executor.shutdownNow();
+
+        // Hand unfinished jobs straight back rather than making other instances wait out the lease
+        for (EvaluationJob job : unfinished) {
+            try {
+                queue.release(job, "Worker shut down during attempt " + job.getAttempts());
+            } catch (Exception e) {
+                log.warn("Could not release evaluation job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = queue.getStats();
+        stats.put("enabled", enabled);
+        stats.put("runningHere", running.size());
+        stats.put("freeSlots", slots.availablePermits());
+        return stats;
+    }
+
+    private void poll() {
+        while (poller == Thread.currentThread()) {
+            try {
+                int free = slots.availablePermits();
+                List<EvaluationJob> claimed = free > 0 ? queue.claim(free) : List.of();
+                if (claimed.isEmpty()) {
+                    wakeUp.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                    continue;
+                }
+                dispatch(claimed);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Evaluation job poll failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(List<EvaluationJob> claimed) throws InterruptedException {
+        Map<String, DriveMetadataResolver.Resolved> metadata;
+        try {
+            metadata = metadataResolver.resolve(claimed.stream().map(EvaluationJob::getFileId).toList());
+        } catch (Exception e) {
+            // Fall back to per-file lookups rather than failing the claimed jobs
+            log.warn("Batch metadata lookup failed, fetching per file: {}", e.getMessage());
+            metadata = Map.of();
+        }
+
+        for (EvaluationJob job : claimed) {
+            DriveMetadataResolver.Resolved resolved = metadata.get(job.getFileId());
+            slots.acquire();
+            running.put(job.getId(), job);
+            // One trace per job attempt; the request that enqueued it finished long ago
+            executor.submit(() -> metrics.time("evaluator.job", () -> {
+                run(job, resolved);
+                return null;
+            }));
+        }
+    }
+
+    private void run(EvaluationJob job, DriveMetadataResolver.Resolved resolved) {
+        try {
+            // Permission problems and unsupported or oversized files will not fix themselves
+            if (resolved != null && !resolved.ok()) {
+                queue.fail(job, resolved.error(), false);
+                return;
+            }
+            File fileInfo = resolved != null ? resolved.file() : null;
+            if (fileInfo != null) {
+                try {
+                    docsService.checkSupported(fileInfo);
+                } catch (Exception e) {
+                    queue.fail(job, e.getMessage(), false);
+                    return;
+                }
+            }
+
+            // 1. Drive download + text extraction
+            AiProvider provider = aiService.resolveProvider(job.getModel());
+            if (provider == null) {
+                queue.fail(job, "Model provider '" + job.getModel() + "' is not supported.", false);
+                return;
+            }
+            int budget = aiService.extractionBudget(provider);
+            ExtractedText text;
+            drivePermits.acquire();
+            try {
+                text = fileInfo != null
+                        ? docsService.extractText(fileInfo, budget)
+                        : docsService.extractText(job.getFileId(), budget);
+            } finally {
+                drivePermits.release();
+            }
+
+            // 2. LLM round trip; the provider's limiter queues it until its rate and concurrency allow
+            String result = aiService.evaluateText(job.getFileId(), job.getFileName(), job.getModel(), text, job.isForce());
+
+            if (EvaluationResults.isTransportFailure(result)) {
+                queue.fail(job, result != null ? result : "Empty result", true);
+            } else if (EvaluationResults.isRejection(result)) {
+                // Unreadable or not a software engineering document; a retry gives the same answer
+                queue.fail(job, result, false);
+            } else {
+                queue.succeed(job, result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // stop() hands the job back
+        } catch (Exception e) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            log.warn("Evaluation job {} failed on file {}: {}", job.getId(), job.getFileId(), e.getMessage());
+            try {
+                queue.fail(job, e.getMessage(), true);
+            } catch (Exception settleFailure) {
+                log.warn("Could not record failure of evaluation job {}: {}", job.getId(), settleFailure.getMessage());
+            }
+        } finally {
+            running.remove(job.getId());
+            slots.release();
+            wakeUp();
+        }
+    }
+}
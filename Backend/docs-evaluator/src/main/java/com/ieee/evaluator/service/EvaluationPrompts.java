@@ -0,0 +1,108 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.DocumentChunk;
+
+import java.util.List;
+
+/**
+ * Prompt templates shared by every AiProvider. Bump {@link #VERSION} whenever the wording changes
+ * so anything keyed on the prompt (cached results, comparisons) can tell old output from new.
+ */
+public final class EvaluationPrompts {
+
+    public static final String VERSION = "v1";
+
+    private EvaluationPrompts() {
+    }
+
+    /**
+     * Single-pass prompt for a document that fits in one request.
+     */
+    public static String analysisPrompt(String documentContent) {
+        return """
+            Evaluate this IEEE 830 SRS.
+
+            If empty, unreadable, or not software engineering, reply:
+            ERROR: Invalid Software Engineering document.
+
+            Otherwise respond with:
+            Summary
+            Strengths
+            Weaknesses
+            Conclusion
+
+            2–3 bullet points per section.
+
+            DOCUMENT:
+            %s
+            """.formatted(documentContent);
+    }
+
+    /**
+     * Map step: reviewer notes for one section of a document that was too large for one request.
+     */
+    public static String sectionPrompt(DocumentChunk chunk, int index, int total) {
+        return """
+            You are reviewing part %d of %d of an IEEE 830 software engineering document.
+            Section: %s
+
+            List the strengths and weaknesses of this part only, 2–4 short bullet points each.
+            Do not write a summary or conclusion; the notes for every part are merged afterwards.
+
+            If the text is unreadable, reply:
+            ERROR: Unreadable section.
+
+            SECTION TEXT:
+            %s
+            """.formatted(index, total, chunk.getTitle(), chunk.getText());
+    }
+
+    /**
+     * Reduce step: turns the per-section notes into the usual four-part report.
+     */
+    public static String mergePrompt(List<DocumentChunk> chunks, List<String> notes) {
+        return """
+            Evaluate this IEEE 830 SRS using the reviewer notes below, one set per section of the document.
+
+            If the notes show the document is empty, unreadable, or not software engineering, reply:
+            ERROR: Invalid Software Engineering document.
+
+            Otherwise respond with:
+            Summary
+            Strengths
+            Weaknesses
+            Conclusion
+
+            2–3 bullet points per section, covering the whole document rather than any single part.
+
+            SECTION NOTES:
+            %s
+            """.formatted(sectionNotes(chunks, notes));
+    }
+
+    /**
+     * Intermediate reduce step for documents with too many parts for one merge request: folds
+     * the notes of several adjacent parts into a single set.
+     */
+    public static String condensePrompt(List<DocumentChunk> chunks, List<String> notes) {
+        return """
+            Combine the reviewer notes below, one set per part of an IEEE 830 software engineering document,
+            into a single set of notes covering all of these parts.
+
+            List the strengths and weaknesses, 3–5 short bullet points each, keeping the most important points.
+            Do not write a summary or conclusion; the notes are merged again afterwards.
+
+            SECTION NOTES:
+            %s
+            """.formatted(sectionNotes(chunks, notes));
+    }
+
+    private static String sectionNotes(List<DocumentChunk> chunks, List<String> notes) {
+        StringBuilder sectionNotes = new StringBuilder();
+        for (int i = 0; i < chunks.size(); i++) {
+            sectionNotes.append("### Part ").append(i + 1).append(": ").append(chunks.get(i).getTitle()).append('\n');
+            sectionNotes.append(notes.get(i).trim()).append("\n\n");
+        }
+        return sectionNotes.toString();
+    }
+}
@@ -0,0 +1,176 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationResultCacheEntry;
+import com.ieee.evaluator.repository.EvaluationResultCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers finished reports so an unchanged document is not sent to the model again. Entries
+ * are keyed by the SHA-256 of the evaluated text plus provider, model id and
+ * {@link EvaluationPrompts#VERSION}; editing the document, switching model or changing the
+ * prompts all produce a new key. Postgres holds every entry, and a small LRU in memory
+ * answers repeat lookups without a round trip.
+ */
+@Component
+@Slf4j
+public class EvaluationResultCache {
+
+    private final EvaluationResultCacheRepository repository;
+    private final boolean enabled;
+    private final int maxMemoryEntries;
+
+    /**
+     * A stored report and the provider that wrote it.
+     */
+    public record CachedResult(String result, String answeredBy) {
+    }
+
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedResult> memory = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    public EvaluationResultCache(EvaluationResultCacheRepository repository,
+                                 @Value("${evaluator.result-cache.enabled:true}") boolean enabled,
+                                 @Value("${evaluator.result-cache.max-memory-entries:500}") int maxMemoryEntries) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.maxMemoryEntries = maxMemoryEntries;
+    }
+
+    public Optional<CachedResult> get(AiProvider provider, String text) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = cacheKey(sha256(text), provider);
+
+        synchronized (memory) {
+            CachedResult cached = memory.get(key);
+            if (cached != null) {
+                memoryHits.incrementAndGet();
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<CachedResult> stored = repository.findById(key).map(entry -> new CachedResult(entry.getResult(),
+                entry.getAnsweredBy() != null ? entry.getAnsweredBy() : entry.getProvider()));
+        if (stored.isPresent()) {
+            databaseHits.incrementAndGet();
+            remember(key, stored.get());
+            try {
+                repository.recordHit(key, LocalDateTime.now());
+            } catch (Exception e) {
+                log.debug("Could not record result cache hit: {}", e.getMessage());
+            }
+        } else {
+            misses.incrementAndGet();
+        }
+        return stored;
+    }
+
+    /**
+     * Stores a finished report. Best effort: the report has already been delivered and saved to
+     * history, so a failed write is logged and otherwise ignored.
+     *
+     * @param answeredBy the provider that wrote the report, served back with it on a hit
+     * @param replace the report comes from a forced re-run and supersedes any stored entry for the
+     *                same key; otherwise an existing entry is left alone with its hit count
+     */
+    public void put(AiProvider provider, String text, String result, String answeredBy, boolean replace) {
+        if (!enabled || !isCacheable(result)) {
+            return;
+        }
+        String textHash = sha256(text);
+        String key = cacheKey(textHash, provider);
+
+        try {
+            Optional<EvaluationResultCacheEntry> existing = repository.findById(key);
+            if (existing.isPresent() && !replace) {
+                return;
+            }
+            EvaluationResultCacheEntry entry = existing.orElseGet(EvaluationResultCacheEntry::new);
+            entry.setCacheKey(key);
+            entry.setTextHash(textHash);
+            entry.setProvider(provider.getProviderName());
+            entry.setModelId(provider.getModelId());
+            entry.setAnsweredBy(answeredBy);
+            entry.setPromptVersion(EvaluationPrompts.VERSION);
+            entry.setResult(result);
+            entry.setCreatedAt(LocalDateTime.now());
+            entry.setLastHitAt(null);
+            entry.setHitCount(0);
+            repository.save(entry);
+            remember(key, new CachedResult(result, answeredBy));
+            stores.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Could not store result cache entry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Empties both tiers; every document is evaluated afresh on its next request.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        repository.deleteAllInBatch();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (memory) {
+            stats.put("memoryEntries", memory.size());
+        }
+        stats.put("maxMemoryEntries", maxMemoryEntries);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("databaseHits", databaseHits.get());
+        stats.put("misses", misses.get());
+        stats.put("stores", stores.get());
+        return stats;
+    }
+
+    private void remember(String key, CachedResult result) {
+        synchronized (memory) {
+            memory.put(key, result);
+            while (memory.size() > maxMemoryEntries) {
+                String eldest = memory.keySet().iterator().next();
+                memory.remove(eldest);
+            }
+        }
+    }
+
+    // Error strings returned in place of a report must never be served again
+    private static boolean isCacheable(String result) {
+        return EvaluationResults.isReport(result);
+    }
+
+    private static String cacheKey(String textHash, AiProvider provider) {
+        return sha256(textHash + "|" + provider.getProviderName() + "|" + provider.getModelId() + "|" + EvaluationPrompts.VERSION);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
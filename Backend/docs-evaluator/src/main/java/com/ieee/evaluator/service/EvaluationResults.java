@@ -0,0 +1,35 @@
+package com.ieee.evaluator.service;
+
+/**
+ * Classifies the text that comes back in place of a report. Providers report some failures as
+ * text instead of throwing, and the prompts ask the model itself to answer "ERROR: ..." for
+ * documents it cannot evaluate; the two must not be confused.
+ */
+public final class EvaluationResults {
+
+    private EvaluationResults() {
+    }
+
+    /**
+     * The call itself failed ("SYSTEM ERROR ...", an unparseable response, nothing at all).
+     * Worth retrying or failing over to another provider.
+     */
+    public static boolean isTransportFailure(String result) {
+        return result == null || result.isBlank() || result.startsWith("SYSTEM ERROR") || result.startsWith("Failed to parse");
+    }
+
+    /**
+     * A valid answer saying the document cannot be evaluated, e.g. the model's
+     * "ERROR: Invalid Software Engineering document." Asking again will not change it.
+     */
+    public static boolean isRejection(String result) {
+        return result != null && result.startsWith("ERROR");
+    }
+
+    /**
+     * A real report: neither a failed call nor a rejection.
+     */
+    public static boolean isReport(String result) {
+        return !isTransportFailure(result) && !isRejection(result);
+    }
+}
@@ -0,0 +1,311 @@
+package com.ieee.evaluator.service;
+
+import com.google.api.services.drive.model.File;
+import com.ieee.evaluator.model.ExtractedText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache of extracted document text, keyed by Drive file ID plus the file's revision
+ * (md5Checksum for binaries, version/modifiedTime for native Google Docs). A changed file gets a
+ * new key, so entries never need explicit invalidation.
+ *
+ * <p>Entries remember whether extraction stopped at a character budget, so a truncated entry
+ * can still serve any request with the same or a smaller budget.
+ */
+@Component
+@Slf4j
+public class ExtractedTextCache {
+
+    private static final String TRUNCATED = "#truncated";
+    private static final String COMPLETE = "#complete";
+
+    private final long maxMemoryChars;
+    private final long maxDiskBytes;
+    private final Path spillDirectory;
+
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, ExtractedText> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryChars = 0;
+
+    // Guards writes to the spill directory; readers rely on atomic moves and never take it
+    private final Object diskLock = new Object();
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    public ExtractedTextCache(@Value("${evaluator.text-cache.max-memory-chars:20000000}") long maxMemoryChars,
+                              @Value("${evaluator.text-cache.max-disk-bytes:500000000}") long maxDiskBytes,
+                              @Value("${evaluator.text-cache.directory:cache/extracted-text}") String directory) {
+        this.maxMemoryChars = maxMemoryChars;
+        this.maxDiskBytes = maxDiskBytes;
+        this.spillDirectory = Path.of(directory);
+
+        try {
+            Files.createDirectories(spillDirectory);
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                diskBytes.set(files.mapToLong(this::sizeOf).sum());
+            }
+        } catch (IOException e) {
+            log.warn("Text cache spill directory {} unavailable: {}", spillDirectory, e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the cache key for a Drive file. Returns null when Drive gave us nothing to tell
+     * revisions apart, in which case the caller should not cache.
+     */
+    public static String keyFor(String fileId, File fileInfo) {
+        if (fileInfo.getMd5Checksum() != null) {
+            return fileId + ":md5:" + fileInfo.getMd5Checksum();
+        }
+        if (fileInfo.getVersion() != null || fileInfo.getModifiedTime() != null) {
+            return fileId + ":v:" + fileInfo.getVersion() + ":" + fileInfo.getModifiedTime();
+        }
+        return null;
+    }
+
+    /**
+     * Looks up the text for a revision, cut down to {@code maxChars} (-1 for the full text).
+     */
+    public Optional<ExtractedText> get(String key, int maxChars) {
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        synchronized (memory) {
+            ExtractedText text = memory.get(key);
+            if (text != null && covers(text, maxChars)) {
+                memoryHits.incrementAndGet();
+                return Optional.of(fit(text, maxChars));
+            }
+        }
+
+        Path file = spillDirectory.resolve(hash(key) + ".txt");
+        if (Files.exists(file)) {
+            try {
+                ExtractedText text = readSpilled(file);
+                if (covers(text, maxChars)) {
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                    diskHits.incrementAndGet();
+                    putInMemory(key, text);
+                    return Optional.of(fit(text, maxChars));
+                }
+            } catch (IOException e) {
+                log.warn("Could not read spilled text for {}: {}", key, e.getMessage());
+            }
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(String key, ExtractedText text) {
+        if (key == null || text == null || text.getText() == null) {
+            return;
+        }
+        putInMemory(key, text);
+    }
+
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+            memoryChars = 0;
+        }
+        synchronized (diskLock) {
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                files.forEach(this::deleteQuietly);
+            } catch (IOException e) {
+                log.warn("Could not clear text cache spill directory: {}", e.getMessage());
+            }
+            diskBytes.set(0);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long entries;
+        long chars;
+        synchronized (memory) {
+            entries = memory.size();
+            chars = memoryChars;
+        }
+        return Map.of(
+                "memoryEntries", entries,
+                "memoryChars", chars,
+                "maxMemoryChars", maxMemoryChars,
+                "diskBytes", diskBytes.get(),
+                "maxDiskBytes", maxDiskBytes,
+                "memoryHits", memoryHits.get(),
+                "diskHits", diskHits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get(),
+                "diskEvictions", diskEvictions.get()
+        );
+    }
+
+    private void putInMemory(String key, ExtractedText text) {
+        // A document bigger than the whole memory tier goes straight to disk
+        if (text.getText().length() > maxMemoryChars) {
+            spill(key, text);
+            return;
+        }
+
+        Map<String, ExtractedText> evicted = new LinkedHashMap<>();
+        synchronized (memory) {
+            ExtractedText previous = memory.get(key);
+            if (previous != null && text.isTruncated() && previous.getText().length() >= text.getText().length()) {
+                return; // never replace an extraction with a shorter one
+            }
+            memory.put(key, text);
+            if (previous != null) {
+                memoryChars -= previous.getText().length();
+            }
+            memoryChars += text.getText().length();
+
+            Iterator<Map.Entry<String, ExtractedText>> it = memory.entrySet().iterator();
+            while (memoryChars > maxMemoryChars && it.hasNext()) {
+                Map.Entry<String, ExtractedText> eldest = it.next();
+                if (eldest.getKey().equals(key)) continue;
+                evicted.put(eldest.getKey(), eldest.getValue());
+                memoryChars -= eldest.getValue().getText().length();
+                it.remove();
+            }
+        }
+
+        // Disk writes happen outside the lock so slow I/O never blocks readers
+        evictions.addAndGet(evicted.size());
+        evicted.forEach(this::spill);
+    }
+
+    private void spill(String key, ExtractedText text) {
+        if (maxDiskBytes <= 0) {
+            return;
+        }
+
+        Path file = spillDirectory.resolve(hash(key) + ".txt");
+        // The exists-check, the replace and the size accounting must not interleave with another spill or a trim
+        synchronized (diskLock) {
+            if (Files.exists(file) && !text.isTruncated()) {
+                // Only a full extraction is worth rewriting over an existing spill
+                try {
+                    if (!readSpilled(file).isTruncated()) return;
+                } catch (IOException ignored) {
+                    // Unreadable spill file, overwrite it below
+                }
+            } else if (Files.exists(file)) {
+                return;
+            }
+
+            try {
+                long previousSize = sizeOf(file);
+                Path temp = Files.createTempFile(spillDirectory, "spill-", ".tmp");
+                // First line records whether the text stopped at a budget
+                Files.writeString(temp, (text.isTruncated() ? TRUNCATED : COMPLETE) + "\n" + text.getText(), StandardCharsets.UTF_8);
+                long size = Files.size(temp);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                if (diskBytes.addAndGet(size - previousSize) > maxDiskBytes) {
+                    trimDisk();
+                }
+            } catch (IOException e) {
+                log.warn("Could not spill text for {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private void trimDisk() {
+        synchronized (diskLock) {
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                List<Path> oldestFirst = files
+                        .filter(p -> p.getFileName().toString().endsWith(".txt"))
+                        .sorted(Comparator.comparing(this::lastModified))
+                        .toList();
+
+                for (Path file : oldestFirst) {
+                    if (diskBytes.get() <= maxDiskBytes) break;
+                    long size = sizeOf(file);
+                    if (deleteQuietly(file)) {
+                        diskBytes.addAndGet(-size);
+                        diskEvictions.incrementAndGet();
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not trim text cache spill directory: {}", e.getMessage());
+            }
+        }
+    }
+
+    private ExtractedText readSpilled(Path file) throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        int newline = content.indexOf('\n');
+        if (newline < 0) {
+            throw new IOException("Corrupt spill file " + file.getFileName());
+        }
+        return new ExtractedText(content.substring(newline + 1), TRUNCATED.equals(content.substring(0, newline)));
+    }
+
+    private static boolean covers(ExtractedText text, int maxChars) {
+        return !text.isTruncated() || (maxChars >= 0 && text.getText().length() >= maxChars);
+    }
+
+    private static ExtractedText fit(ExtractedText text, int maxChars) {
+        if (maxChars >= 0 && text.getText().length() > maxChars) {
+            return new ExtractedText(text.getText().substring(0, maxChars), true);
+        }
+        return text;
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,69 +3,163 @@ package com.ieee.evaluator.service;
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.AutoDetectParser;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.sax.BodyContentHandler;
+import com.ieee.evaluator.model.ExtractedText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
 
 @Service
+@Slf4j
 public class GoogleDocsService {
 
+    static final String PERMISSION_DENIED_MESSAGE = "Permission denied or file not found. Ensure the student set the Google Drive sharing settings to 'Anyone with the link can view'.";
+
+    private static final String GOOGLE_DOC = "application/vnd.google-apps.document";
+
     private final Drive driveService;
+    private final ExtractedTextCache textCache;
+    private final RawContentStore rawStore;
+    private final EvaluatorMetrics metrics;
+    private final long maxFileBytes;
+
+    private final DocumentTextReader textReader = new DocumentTextReader();
 
-    public GoogleDocsService(Drive driveService) {
+    public GoogleDocsService(Drive driveService, ExtractedTextCache textCache, RawContentStore rawStore,
+                             EvaluatorMetrics metrics,
+                             @Value("${evaluator.drive.max-file-bytes:52428800}") long maxFileBytes) {
         this.driveService = driveService;
+        this.textCache = textCache;
+        this.rawStore = rawStore;
+        this.metrics = metrics;
+        this.maxFileBytes = maxFileBytes;
     }
 
     /**
      * Intelligently downloads and extracts text from Google Docs, Word Docs, and PDFs.
      */
     public String exportDocAsText(String fileId) throws Exception {
+        return extractText(fileId, -1).getText();
+    }
+
+    /**
+     * Same as {@link #exportDocAsText(String)}, but stops reading once {@code maxChars} characters
+     * have been extracted (-1 for no limit) and reports whether the text was cut off.
+     */
+    public ExtractedText extractText(String fileId, int maxChars) throws Exception {
         if (fileId == null || fileId.isEmpty()) {
             throw new IllegalArgumentException("File ID cannot be null or empty");
         }
 
         try {
             // 1. BE SMART: Ask Google Drive what kind of file this actually is
-            File fileInfo = driveService.files()
+            File fileInfo = metrics.time("evaluator.drive.metadata", () -> driveService.files()
                     .get(fileId)
-                    .setFields("name, mimeType")
-                    .execute();
-
-            String mimeType = fileInfo.getMimeType();
-            System.out.println("DEBUG: Detected file type: " + mimeType + " for " + fileInfo.getName());
-
-            // 2. ROUTE IT: Handle Native Google Docs
-            if (mimeType.equals("application/vnd.google-apps.document")) {
-                try (InputStream is = driveService.files().export(fileId, "text/plain").executeMediaAsInputStream()) {
-                    return new String(is.readAllBytes(), StandardCharsets.UTF_8);
-                }
-            } 
-            
-            // 3. ROUTE IT: Handle Binary Files (PDF, DOCX, TXT)
-            else if (isSupportedBinary(mimeType)) {
-                // Notice we use .get() instead of .export() here for binary files!
-                try (InputStream is = driveService.files().get(fileId).setAlt("media").executeMediaAsInputStream()) {
-                    return extractTextWithTika(is);
-                }
-            } 
-            
-            // 4. GRACEFUL FAILURE: If it's a folder, zip, or image, reject it safely
-            else {
-                throw new Exception("Unsupported file format: " + fileInfo.getName() + " (" + mimeType + "). The evaluator currently supports Google Docs, PDFs, Word Documents, and plain text files.");
-            }
+                    .setFields(DriveMetadataResolver.FIELDS)
+                    .execute(), "mode", "single");
+
+            return extractText(fileInfo, maxChars);
+        } catch (GoogleJsonResponseException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Extracts text for a file whose metadata is already known, e.g. from
+     * {@link DriveMetadataResolver}, so no further metadata call is made.
+     */
+    public ExtractedText extractText(File fileInfo, int maxChars) throws Exception {
+        String fileId = fileInfo.getId();
+        String mimeType = fileInfo.getMimeType();
+        log.debug("Detected file type: {} for {}", mimeType, fileInfo.getName());
 
+        // Skip the download and the Tika parse entirely if this exact revision was extracted before
+        String cacheKey = ExtractedTextCache.keyFor(fileId, fileInfo);
+        Optional<ExtractedText> cached = textCache.get(cacheKey, maxChars);
+        if (cached.isPresent()) {
+            metrics.count("evaluator.extract.cache", "result", "hit");
+            return cached.get();
+        }
+        metrics.count("evaluator.extract.cache", "result", "miss");
+
+        // Reject folders, images and oversized uploads before spending a download on them
+        checkSupported(fileInfo);
+
+        boolean nativeDoc = mimeType.equals(GOOGLE_DOC);
+        try (InputStream is = openContent(fileId, cacheKey, mimeType, nativeDoc)) {
+            // 2. ROUTE IT: Native Google Docs arrive as exported plain text
+            // 3. ROUTE IT: Binary Files (PDF, DOCX, TXT) go through Tika
+            ExtractedText text = metrics.time("evaluator.extract.parse",
+                    () -> nativeDoc ? textReader.readText(is, maxChars) : textReader.extractWithTika(is, maxChars),
+                    "mimeType", mimeType);
+            metrics.record("evaluator.document.chars", text.getText().length(),
+                    "mimeType", mimeType, "truncated", String.valueOf(text.isTruncated()));
+            textCache.put(cacheKey, text);
+            return text;
         } catch (GoogleJsonResponseException e) {
-            // Give the teacher a human-readable error if the student forgot to open link sharing
-            if (e.getStatusCode() == 403 || e.getStatusCode() == 404) {
-                throw new Exception("Permission denied or file not found. Ensure the student set the Google Drive sharing settings to 'Anyone with the link can view'.");
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Opens the file's bytes: from the raw content store when this revision was downloaded before,
+     * otherwise streamed from Drive. A streamed download is copied into the store as it is parsed
+     * and kept only if the parser read all of it.
+     */
+    private InputStream openContent(String fileId, String revisionKey, String mimeType, boolean nativeDoc) throws Exception {
+        Optional<Path> stored = rawStore.find(revisionKey);
+        if (stored.isPresent()) {
+            metrics.count("evaluator.drive.download.skipped", "mimeType", mimeType);
+            return rawStore.open(stored.get());
+        }
+
+        boolean keep = revisionKey != null && rawStore.isEnabled();
+        // The body streams into the parser (teed to the store), so this only covers the response headers
+        return metrics.time("evaluator.drive.download", () -> {
+            // Notice we use .get() instead of .export() here for binary files!
+            InputStream download = nativeDoc
+                    ? driveService.files().export(fileId, "text/plain").executeMediaAsInputStream()
+                    : driveService.files().get(fileId).setAlt("media").executeMediaAsInputStream();
+            if (!keep) {
+                return download;
             }
-            throw e; // Rethrow if it's a different API error
+            try {
+                return rawStore.tee(revisionKey, download);
+            } catch (IOException e) {
+                log.warn("Raw content store unavailable, parsing {} without keeping it: {}", fileId, e.getMessage());
+                return download;
+            }
+        }, "mimeType", mimeType, "stored", String.valueOf(keep));
+    }
+
+    /**
+     * Throws if the file cannot be evaluated, using metadata only.
+     */
+    public void checkSupported(File fileInfo) throws Exception {
+        String mimeType = fileInfo.getMimeType();
+
+        // 4. GRACEFUL FAILURE: If it's a folder, zip, or image, reject it safely
+        if (mimeType == null || (!mimeType.equals(GOOGLE_DOC) && !isSupportedBinary(mimeType))) {
+            throw new Exception("Unsupported file format: " + fileInfo.getName() + " (" + mimeType + "). The evaluator currently supports Google Docs, PDFs, Word Documents, and plain text files.");
+        }
+
+        // Native Google Docs report no size; everything else must fit the download limit
+        if (maxFileBytes > 0 && fileInfo.getSize() != null && fileInfo.getSize() > maxFileBytes) {
+            throw new Exception("File too large: " + fileInfo.getName() + " is " + fileInfo.getSize() / (1024 * 1024)
+                    + " MB, the limit is " + maxFileBytes / (1024 * 1024) + " MB.");
+        }
+    }
+
+    private static Exception translate(GoogleJsonResponseException e) {
+        // Give the teacher a human-readable error if the student forgot to open link sharing
+        if (e.getStatusCode() == 403 || e.getStatusCode() == 404) {
+            return new Exception(PERMISSION_DENIED_MESSAGE);
         }
+        return e; // Rethrow if it's a different API error
     }
 
     /**
@@ -76,19 +170,4 @@ public class GoogleDocsService {
                mimeType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document") ||
                mimeType.equals("text/plain");
     }
-
-    /**
-     * Uses Apache Tika to magically rip the text out of binary files like PDFs and DOCX
-     */
-    private String extractTextWithTika(InputStream inputStream) throws Exception {
-        // -1 disables the character limit so it can read massive documents
-        BodyContentHandler handler = new BodyContentHandler(-1); 
-        AutoDetectParser parser = new AutoDetectParser();
-        Metadata metadata = new Metadata();
-        ParseContext context = new ParseContext();
-
-        // Tika automatically detects the exact file format and extracts the plain text
-        parser.parse(inputStream, handler, metadata, context);
-        return handler.toString();
-    }
 }
\ No newline at end of file
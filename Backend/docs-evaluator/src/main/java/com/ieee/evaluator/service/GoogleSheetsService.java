@@ -1,7 +1,7 @@
 package com.ieee.evaluator.service;
 
 import com.google.api.client.auth.oauth2.Credential;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.model.ValueRange;
@@ -9,7 +9,6 @@ import com.ieee.evaluator.model.DeliverableConfig;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.security.GeneralSecurityException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -19,35 +18,32 @@ import java.util.Map;
 @Service
 public class GoogleSheetsService {
 
-    private final Credential credential;
+    private final Sheets sheets;
+    private final SheetRangeCache rangeCache;
     private final String SPREADSHEET_ID = "1q6cmg5f2WjM_6L7cMmWugZTaWYZMbm5i2jV2_hGq3Fc";
     
     // Matches the format in your spreadsheet: 3/21/2026 23:59:00
     private static final DateTimeFormatter DEADLINE_FORMATTER = DateTimeFormatter.ofPattern("M/d/yyyy H:mm:ss");
 
-    public GoogleSheetsService(Credential credential) {
-        this.credential = credential;
+    public GoogleSheetsService(Credential credential, NetHttpTransport httpTransport, SheetRangeCache rangeCache) {
+        // Built once and shared: the client and its transport are thread-safe
+        this.sheets = new Sheets.Builder(
+                httpTransport,
+                GsonFactory.getDefaultInstance(),
+                credential)
+                .setApplicationName("IEEE Docs Evaluator")
+                .build();
+        this.rangeCache = rangeCache;
     }
 
     /**
      * Fetches the Deliverable Configuration (Tags and Deadlines) 
      * from the 'Deliverables_Config' tab.
      */
-    public Map<String, DeliverableConfig> getDeliverableConfigs() throws IOException, GeneralSecurityException {
-        Sheets service = new Sheets.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                GsonFactory.getDefaultInstance(),
-                credential)
-                .setApplicationName("IEEE Docs Evaluator")
-                .build();
-
+    public Map<String, DeliverableConfig> getDeliverableConfigs() throws IOException {
         // Reading Columns A (Tag) and B (Deadline)
         String range = "Deliverables_Config!A2:B";
-        ValueRange response = service.spreadsheets().values()
-                .get(SPREADSHEET_ID, range)
-                .execute();
-
-        List<List<Object>> values = response.getValues();
+        List<List<Object>> values = getSheetData(range);
         Map<String, DeliverableConfig> configMap = new HashMap<>();
 
         if (values == null || values.isEmpty()) {
@@ -72,16 +68,21 @@ public class GoogleSheetsService {
 
     /**
      * Fetches generic row data from a specified range in the Google Sheet.
+     * Served from the range cache while the cached copy is younger than the configured TTL.
      */
-    public List<List<Object>> getSheetData(String range) throws IOException, GeneralSecurityException {
-        Sheets service = new Sheets.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                GsonFactory.getDefaultInstance(),
-                credential)
-                .setApplicationName("IEEE Docs Evaluator")
-                .build();
+    public List<List<Object>> getSheetData(String range) throws IOException {
+        return rangeCache.get(SPREADSHEET_ID, range, () -> fetchRange(range));
+    }
+
+    /**
+     * Drops the cached copy of a range (or every range when null) so the next read hits the API.
+     */
+    public void invalidate(String range) {
+        rangeCache.invalidate(range);
+    }
 
-        ValueRange response = service.spreadsheets().values()
+    private List<List<Object>> fetchRange(String range) throws IOException {
+        ValueRange response = sheets.spreadsheets().values()
                 .get(SPREADSHEET_ID, range)
                 .execute();
 
@@ -1,20 +1,31 @@
 package com.ieee.evaluator.service;
 
-import org.springframework.http.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 public class OpenAiProvider implements AiProvider {
 
+    private static final String API_URL = "https://api.openai.com/v1/chat/completions";
+    private static final String MODEL = "gpt-4o-mini";
+
     private final DynamicConfigService configService;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final AiHttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int maxInputChars;
 
-    public OpenAiProvider(DynamicConfigService configService) {
+    public OpenAiProvider(DynamicConfigService configService, AiHttpClient httpClient,
+                          @Value("${evaluator.ai.openai.max-input-chars:100000}") int maxInputChars) {
         this.configService = configService;
+        this.httpClient = httpClient;
+        this.maxInputChars = maxInputChars;
     }
 
     @Override
@@ -23,49 +34,55 @@ public class OpenAiProvider implements AiProvider {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public String analyze(String text) throws Exception {
-        // DYNAMIC: Fetch the API key straight from Supabase!
-        String openAiKey = configService.getValue("OPENAI_API_KEY");
-        
-        String url = "https://api.openai.com/v1/chat/completions";
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(openAiKey);
+    public String getModelId() {
+        return MODEL;
+    }
 
-        String prompt = """
-            Evaluate this IEEE 830 SRS.
+    @Override
+    public int getMaxInputChars() {
+        return maxInputChars;
+    }
 
-            If empty, unreadable, or not software engineering, reply:
-            ERROR: Invalid Software Engineering document.
+    @Override
+    public String analyze(String text) throws Exception {
+        return complete(EvaluationPrompts.analysisPrompt(text));
+    }
 
-            Otherwise respond with:
-            Summary
-            Strengths
-            Weaknesses
-            Conclusion
+    @Override
+    public String complete(String prompt) throws Exception {
+        // DYNAMIC: Fetch the API key straight from Supabase!
+        String openAiKey = configService.getValue("OPENAI_API_KEY");
 
-            2–3 bullet points per section.
+        String response = httpClient.postJson(getProviderName(), API_URL,
+                Map.of("Authorization", "Bearer " + openAiKey), objectMapper.writeValueAsString(buildRequestBody(prompt, false)));
 
-            DOCUMENT:
-            """ + text;
+        JsonNode root = objectMapper.readTree(response);
+        httpClient.recordUsage(getProviderName(), root.path("usage"));
+        JsonNode choices = root.path("choices");
+        if (!choices.isArray() || choices.isEmpty()) {
+            return "Failed to parse OpenAI response.";
+        }
+        return choices.get(0).path("message").path("content").asText();
+    }
 
-        Map<String, Object> body = Map.of(
-            "model", "gpt-4o-mini",
-            "messages", List.of(Map.of("role", "user", "content", prompt)),
-            "max_tokens", 400
-        );
+    @Override
+    public String completeStreaming(String prompt, Consumer<String> onToken) throws Exception {
+        String openAiKey = configService.getValue("OPENAI_API_KEY");
 
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-        ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
+        ChatCompletionStream stream = new ChatCompletionStream(objectMapper, onToken);
+        httpClient.postJsonStream(getProviderName(), API_URL,
+                Map.of("Authorization", "Bearer " + openAiKey), objectMapper.writeValueAsString(buildRequestBody(prompt, true)), stream);
+        return stream.getText();
+    }
 
-        if (response.getBody() == null || !response.getBody().containsKey("choices")) {
-            return "Failed to parse OpenAI response.";
+    private Map<String, Object> buildRequestBody(String prompt, boolean stream) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", MODEL);
+        body.put("messages", List.of(Map.of("role", "user", "content", prompt)));
+        body.put("max_tokens", 800);
+        if (stream) {
+            body.put("stream", true);
         }
-
-        List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
-        Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-        return (String) message.get("content");
+        return body;
     }
 }
\ No newline at end of file
@@ -3,34 +3,33 @@ package com.ieee.evaluator.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
 public class OpenRouterService implements AiProvider {
 
     private final DynamicConfigService configService;
-    private final RestTemplate restTemplate;
+    private final AiHttpClient httpClient;
     private final ObjectMapper objectMapper;
 
     // We can leave the URL and Model hardcoded for now, or move them to the DB later!
     private final String apiUrl = "https://openrouter.ai/api/v1/chat/completions";
     private final String model = "openrouter/free"; 
+    private final int maxInputChars;
 
-    public OpenRouterService(DynamicConfigService configService) {
+    public OpenRouterService(DynamicConfigService configService, AiHttpClient httpClient,
+                             @Value("${evaluator.ai.openrouter.max-input-chars:8000}") int maxInputChars) {
         this.configService = configService;
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(30000); 
-        factory.setReadTimeout(60000);    
-        this.restTemplate = new RestTemplate(factory);
+        this.httpClient = httpClient;
+        this.maxInputChars = maxInputChars;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -39,6 +38,16 @@ public class OpenRouterService implements AiProvider {
         return "openrouter";
     }
 
+    @Override
+    public String getModelId() {
+        return model;
+    }
+
+    @Override
+    public int getMaxInputChars() {
+        return maxInputChars;
+    }
+
     @Override
     public String analyze(String documentContent) throws Exception {
         // DYNAMIC: Fetch the OpenRouter API key straight from Supabase!
@@ -57,65 +66,76 @@ public class OpenRouterService implements AiProvider {
         }
     }
 
-    private String buildAnalysisPrompt(String documentContent) {
-        String truncatedContent = documentContent.length() > 8000 
-            ? documentContent.substring(0, 8000) + "...[truncated]" 
-            : documentContent;
+    @Override
+    public String complete(String prompt) throws Exception {
+        String apiKey = configService.getValue("OPENROUTER_API_KEY");
 
-        return """
-            Evaluate this IEEE 830 SRS.
+        if (apiKey == null || apiKey.isEmpty()) {
+            throw new IllegalStateException("OpenRouter API key not configured in the database.");
+        }
+        return callOpenRouterAPI(prompt, apiKey);
+    }
 
-            If empty, unreadable, or not software engineering, reply:
-            ERROR: Invalid Software Engineering document.
+    @Override
+    public String completeStreaming(String prompt, Consumer<String> onToken) throws Exception {
+        String apiKey = configService.getValue("OPENROUTER_API_KEY");
 
-            Otherwise respond with:
-            Summary
-            Strengths
-            Weaknesses
-            Conclusion
+        if (apiKey == null || apiKey.isEmpty()) {
+            throw new IllegalStateException("OpenRouter API key not configured in the database.");
+        }
 
-            2–3 bullet points per section.
+        ChatCompletionStream stream = new ChatCompletionStream(objectMapper, onToken);
+        httpClient.postJsonStream(getProviderName(), apiUrl, buildHeaders(apiKey),
+                objectMapper.writeValueAsString(buildRequestBody(prompt, true)), stream);
+        return stream.getText();
+    }
+
+    private String buildAnalysisPrompt(String documentContent) {
+        String truncatedContent = documentContent.length() > maxInputChars 
+            ? documentContent.substring(0, maxInputChars) + "...[truncated]" 
+            : documentContent;
 
-            DOCUMENT:
-            %s
-            """.formatted(truncatedContent);
+        return EvaluationPrompts.analysisPrompt(truncatedContent);
     }
 
-    private String callOpenRouterAPI(String prompt, String dynamicApiKey) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(dynamicApiKey); // Uses the dynamic key!
-        headers.set("HTTP-Referer", "http://localhost:8080");
-        headers.set("X-Title", "IEEE Docs Evaluator");
+    private Map<String, String> buildHeaders(String dynamicApiKey) {
+        return Map.of(
+            "Authorization", "Bearer " + dynamicApiKey, // Uses the dynamic key!
+            "HTTP-Referer", "http://localhost:8080",
+            "X-Title", "IEEE Docs Evaluator"
+        );
+    }
+
+    private Map<String, Object> buildRequestBody(String prompt, boolean stream) {
+        List<Map<String, Object>> contentList = new ArrayList<>();
+        Map<String, Object> textContent = new HashMap<>();
+        textContent.put("type", "text");
+        textContent.put("text", prompt);
+        contentList.add(textContent);
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("messages", List.of(
+            Map.of("role", "user", "content", contentList)
+        ));
+        requestBody.put("temperature", 0.3);
+        requestBody.put("max_tokens", 800);
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        return requestBody;
+    }
 
+    private String callOpenRouterAPI(String prompt, String dynamicApiKey) {
         try {
-            List<Map<String, Object>> contentList = new ArrayList<>();
-            Map<String, Object> textContent = new HashMap<>();
-            textContent.put("type", "text");
-            textContent.put("text", prompt);
-            contentList.add(textContent);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("messages", List.of(
-                Map.of("role", "user", "content", contentList)
-            ));
-            requestBody.put("temperature", 0.3);
-            requestBody.put("max_tokens", 800); 
-
-            String jsonBody = objectMapper.writeValueAsString(requestBody);
-            HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                apiUrl, HttpMethod.POST, entity, String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                JsonNode root = objectMapper.readTree(response.getBody());
-                JsonNode choices = root.path("choices");
-                if (choices.isArray() && choices.size() > 0) {
-                    return choices.get(0).path("message").path("content").asText();
-                }
+            String jsonBody = objectMapper.writeValueAsString(buildRequestBody(prompt, false));
+            String response = httpClient.postJson(getProviderName(), apiUrl, buildHeaders(dynamicApiKey), jsonBody);
+
+            JsonNode root = objectMapper.readTree(response);
+            httpClient.recordUsage(getProviderName(), root.path("usage"));
+            JsonNode choices = root.path("choices");
+            if (choices.isArray() && choices.size() > 0) {
+                return choices.get(0).path("message").path("content").asText();
             }
             throw new RuntimeException("Invalid API response");
         } catch (Exception e) {
@@ -0,0 +1,251 @@
+package com.ieee.evaluator.service;
+
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for one AI provider, used by {@link AiHttpClient}.
+ * <ul>
+ *   <li>Rate: two token buckets, requests per minute and estimated tokens per minute. Callers
+ *       reserve capacity in arrival order and then sleep until their slot, so queueing is FIFO
+ *       and a large request cannot be starved by a stream of small ones.</li>
+ *   <li>Retry-After: a 429 pauses the whole provider until the time the server asked for.</li>
+ *   <li>Concurrency (AIMD): the in-flight limit grows by about one per round of successes and
+ *       halves on a 429, or shrinks slightly when latency exceeds the target.</li>
+ * </ul>
+ */
+public class ProviderRateLimiter {
+
+    private static final double LATENCY_DECREASE_FACTOR = 0.9;
+    private static final double THROTTLE_DECREASE_FACTOR = 0.5;
+
+    /**
+     * An admitted request. Exactly one of the release methods must be called.
+     */
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        public void onSuccess() {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            release(latencyTargetMs > 0 && latencyMs > latencyTargetMs ? LATENCY_DECREASE_FACTOR : 0);
+        }
+
+        /**
+         * The provider said "slow down": pause for {@code retryAfterSeconds} (or the default backoff
+         * when it is negative) and cut the concurrency limit.
+         */
+        public void onThrottled(long retryAfterSeconds) {
+            pauseFor(retryAfterSeconds >= 0 ? TimeUnit.SECONDS.toNanos(retryAfterSeconds) : TimeUnit.MILLISECONDS.toNanos(defaultBackoffMs));
+            throttled.incrementAndGet();
+            release(THROTTLE_DECREASE_FACTOR);
+        }
+
+        public void onFailure() {
+            release(1.0);
+        }
+
+        private void release(double decreaseFactor) {
+            lock.lock();
+            try {
+                if (released) return;
+                released = true;
+                inFlight--;
+                if (decreaseFactor == 0) {
+                    limit = Math.min(maxConcurrency, limit + 1.0 / limit);
+                } else if (decreaseFactor < 1.0 && System.nanoTime() - lastDecreaseNanos >= TimeUnit.MILLISECONDS.toNanos(decreaseCooldownMs)) {
+                    // One cut per cool-down, so a burst of 429s from the same overload halves once
+                    limit = Math.max(minConcurrency, limit * decreaseFactor);
+                    lastDecreaseNanos = System.nanoTime();
+                }
+                slotFreed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final String provider;
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final long latencyTargetMs;
+    private final long defaultBackoffMs;
+    private final long decreaseCooldownMs;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotFreed = lock.newCondition();
+
+    // Guarded by lock
+    private double requestTokens;
+    private double tokenTokens;
+    private long lastRefillNanos = System.nanoTime();
+    private long pausedUntilNanos;
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong queuedNanos = new AtomicLong();
+
+    /**
+     * @param requestsPerMinute 0 for no request limit
+     * @param tokensPerMinute   0 for no token limit
+     */
+    public ProviderRateLimiter(String provider, double requestsPerMinute, double tokensPerMinute,
+                               int minConcurrency, int maxConcurrency, long latencyTargetMs,
+                               long defaultBackoffMs, long decreaseCooldownMs) {
+        this.provider = provider;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.minConcurrency = Math.max(1, minConcurrency);
+        this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+        this.latencyTargetMs = latencyTargetMs;
+        this.defaultBackoffMs = defaultBackoffMs;
+        this.decreaseCooldownMs = decreaseCooldownMs;
+        this.requestTokens = requestsPerMinute;
+        this.tokenTokens = tokensPerMinute;
+        this.limit = this.maxConcurrency;
+        // nanoTime has an arbitrary origin, so "not paused" and "never cut" start from now
+        this.pausedUntilNanos = lastRefillNanos;
+        this.lastDecreaseNanos = lastRefillNanos - TimeUnit.MILLISECONDS.toNanos(decreaseCooldownMs);
+    }
+
+    /**
+     * Waits until both rate buckets and the concurrency limit admit a request of
+     * {@code estimatedTokens}, for at most {@code maxWaitMs}.
+     */
+    public Permit acquire(int estimatedTokens, long maxWaitMs) throws HttpTimeoutException, InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        // 1. Rate: reserve our share now, then sleep until the buckets would have held it
+        long readyAt = reserve(estimatedTokens);
+        // Any way out of here without a permit (timeout, interrupt) hands the reservation back
+        boolean admittedSlot = false;
+        try {
+            if (readyAt > deadline) {
+                throw new HttpTimeoutException(provider + ": rate limit queue longer than " + maxWaitMs + " ms");
+            }
+            long sleepNanos = readyAt - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+
+            // 2. Concurrency: wait for a slot under the current adaptive limit
+            lock.lockInterruptibly();
+            try {
+                while (inFlight >= (int) limit || System.nanoTime() - pausedUntilNanos < 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new HttpTimeoutException(provider + ": no free slot within " + maxWaitMs + " ms");
+                    }
+                    long pause = pausedUntilNanos - System.nanoTime();
+                    slotFreed.awaitNanos(pause > 0 ? Math.min(pause, remaining) : remaining);
+                }
+                inFlight++;
+                admittedSlot = true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            if (!admittedSlot) {
+                refund(estimatedTokens);
+            }
+        }
+
+        admitted.incrementAndGet();
+        queuedNanos.addAndGet(System.nanoTime() - start);
+        return new Permit();
+    }
+
+    public Map<String, Object> getStats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requestsPerMinute", requestsPerMinute);
+            stats.put("tokensPerMinute", tokensPerMinute);
+            stats.put("concurrencyLimit", Math.round(limit * 100) / 100.0);
+            stats.put("maxConcurrency", maxConcurrency);
+            stats.put("inFlight", inFlight);
+            stats.put("pausedForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - System.nanoTime())));
+            stats.put("admitted", admitted.get());
+            stats.put("throttled", throttled.get());
+            stats.put("avgQueueMs", admitted.get() == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(queuedNanos.get() / admitted.get()));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes one request and {@code estimatedTokens} tokens out of the buckets, letting them go
+     * negative, and returns when the debt will have been refilled.
+     */
+    private long reserve(int estimatedTokens) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+
+            long readyAt = Math.max(now, pausedUntilNanos);
+            if (requestsPerMinute > 0) {
+                requestTokens -= 1;
+                readyAt = Math.max(readyAt, now + debtNanos(requestTokens, requestsPerMinute));
+            }
+            if (tokensPerMinute > 0) {
+                // A single request larger than the whole bucket is admitted once the bucket is full
+                tokenTokens -= Math.min(estimatedTokens, tokensPerMinute);
+                readyAt = Math.max(readyAt, now + debtNanos(tokenTokens, tokensPerMinute));
+            }
+            return readyAt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refund(int estimatedTokens) {
+        lock.lock();
+        try {
+            if (requestsPerMinute > 0) {
+                requestTokens = Math.min(requestsPerMinute, requestTokens + 1);
+            }
+            if (tokensPerMinute > 0) {
+                tokenTokens = Math.min(tokensPerMinute, tokenTokens + Math.min(estimatedTokens, tokensPerMinute));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        double minutes = (now - lastRefillNanos) / 60e9;
+        lastRefillNanos = now;
+        if (requestsPerMinute > 0) {
+            requestTokens = Math.min(requestsPerMinute, requestTokens + minutes * requestsPerMinute);
+        }
+        if (tokensPerMinute > 0) {
+            tokenTokens = Math.min(tokensPerMinute, tokenTokens + minutes * tokensPerMinute);
+        }
+    }
+
+    private static long debtNanos(double balance, double perMinute) {
+        return balance >= 0 ? 0 : (long) (-balance / perMinute * 60e9);
+    }
+
+    private void pauseFor(long nanos) {
+        lock.lock();
+        try {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + nanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
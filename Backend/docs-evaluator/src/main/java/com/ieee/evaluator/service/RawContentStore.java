@@ -0,0 +1,418 @@
+package com.ieee.evaluator.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.io.TikaInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Local copy of downloaded Drive content, so a failed or repeated extraction (for example with
+ * a larger character budget) re-parses from disk instead of downloading again.
+ *
+ * <p>Content lives in {@code <sha256 of bytes>.bin}, so identical uploads share one file. A small
+ * {@code <sha256 of revision key>.ref} file points from a Drive revision to its content. Both
+ * count toward the quota, and least recently used content is evicted once it is exceeded. Stored
+ * content is handed to Tika as a file-backed stream, so parsers that need random access (PDF,
+ * OOXML) read it in place instead of spooling another copy.
+ */
+@Component
+@Slf4j
+public class RawContentStore {
+
+    private static final String CONTENT_SUFFIX = ".bin";
+    private static final String REF_SUFFIX = ".ref";
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long maxDownloadBytes;
+    private final Path directory;
+
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RawContentStore(@Value("${evaluator.raw-store.enabled:true}") boolean enabled,
+                           @Value("${evaluator.raw-store.max-bytes:1000000000}") long maxBytes,
+                           @Value("${evaluator.raw-store.directory:cache/raw-content}") String directory,
+                           @Value("${evaluator.drive.max-file-bytes:52428800}") long maxDownloadBytes) {
+        this.maxBytes = maxBytes;
+        this.maxDownloadBytes = maxDownloadBytes;
+        this.directory = Path.of(directory);
+
+        boolean usable = enabled && maxBytes > 0;
+        if (usable) {
+            try {
+                Files.createDirectories(this.directory);
+                try (Stream<Path> files = Files.list(this.directory)) {
+                    storedBytes.set(files.filter(RawContentStore::isStored).mapToLong(this::sizeOf).sum());
+                }
+            } catch (IOException e) {
+                log.warn("Raw content directory {} unavailable, downloads will not be kept: {}", this.directory, e.getMessage());
+                usable = false;
+            }
+        }
+        this.enabled = usable;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the stored content for a Drive revision key, if it is still on disk.
+     */
+    public Optional<Path> find(String revisionKey) {
+        if (!enabled || revisionKey == null) {
+            return Optional.empty();
+        }
+
+        Path ref = refFor(revisionKey);
+        try {
+            if (Files.exists(ref)) {
+                Path content = contentFor(ref);
+                if (Files.exists(content)) {
+                    Files.setLastModifiedTime(content, FileTime.fromMillis(System.currentTimeMillis()));
+                    hits.incrementAndGet();
+                    return Optional.of(content);
+                }
+                // Content was evicted; the dangling ref goes too
+                deleteIfDangling(ref);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read raw content ref for {}: {}", revisionKey, e.getMessage());
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Passes {@code in} through unchanged while copying it to disk, so the caller can parse the
+     * download as it arrives. A caller that stops early (an extraction that reached its character
+     * budget) still gets the whole file kept: closing the stream reads the rest of the download
+     * into the copy, up to {@code evaluator.drive.max-file-bytes}. The copy is recorded under
+     * {@code revisionKey} only once the download has been read to its end.
+     */
+    public InputStream tee(String revisionKey, InputStream in) throws IOException {
+        Path temp = Files.createTempFile(directory, "download-", ".tmp");
+        return new TeeInputStream(revisionKey, in, temp);
+    }
+
+    /**
+     * Moves a fully written download into place under the SHA-256 of its bytes and points
+     * {@code revisionKey} at it. Runs under the same lock as {@link #trim}, so two downloads of
+     * the same bytes cannot both count them toward the quota.
+     */
+    private synchronized void commit(String revisionKey, Path temp, byte[] digest, long size) throws IOException {
+        String contentHash = HexFormat.of().formatHex(digest);
+        Path content = directory.resolve(contentHash + CONTENT_SUFFIX);
+        if (Files.exists(content)) {
+            deleteQuietly(temp); // same bytes already stored under another revision
+            Files.setLastModifiedTime(content, FileTime.fromMillis(System.currentTimeMillis()));
+        } else {
+            Files.move(temp, content, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            storedBytes.addAndGet(size);
+        }
+
+        Path ref = refFor(revisionKey);
+        long previousRefSize = sizeOf(ref);
+        Files.writeString(ref, contentHash, StandardCharsets.UTF_8);
+        if (storedBytes.addAndGet(sizeOf(ref) - previousRefSize) > maxBytes) {
+            trim(content);
+        }
+    }
+
+    /**
+     * Opens stored content as a file-backed {@link TikaInputStream}. Tika's parsers recognise it
+     * and read the file directly rather than spooling the stream to a temp file of their own.
+     */
+    public InputStream open(Path content) throws IOException {
+        return TikaInputStream.get(content);
+    }
+
+    public synchronized void clear() {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not clear raw content directory: {}", e.getMessage());
+        }
+        storedBytes.set(0);
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "enabled", enabled,
+                "storedBytes", storedBytes.get(),
+                "maxBytes", maxBytes,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get()
+        );
+    }
+
+    private synchronized void trim(Path keep) {
+        boolean evicted = false;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> oldestFirst = files
+                    .filter(RawContentStore::isContent)
+                    .sorted(Comparator.comparing(this::lastModified))
+                    .toList();
+
+            for (Path file : oldestFirst) {
+                if (storedBytes.get() <= maxBytes) break;
+                if (file.equals(keep)) continue;
+                long size = sizeOf(file);
+                if (deleteQuietly(file)) {
+                    storedBytes.addAndGet(-size);
+                    evictions.incrementAndGet();
+                    evicted = true;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not trim raw content directory: {}", e.getMessage());
+        }
+
+        if (evicted) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(RawContentStore::isRef).toList().forEach(this::deleteIfDangling);
+            } catch (IOException e) {
+                log.warn("Could not trim raw content refs: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes a ref whose content is gone. Checked again under the lock, because a concurrent
+     * {@link #commit} may have just pointed the ref at fresh content.
+     */
+    private synchronized void deleteIfDangling(Path ref) {
+        try {
+            if (Files.exists(contentFor(ref))) {
+                return;
+            }
+        } catch (IOException e) {
+            // Unreadable ref: remove it as well
+        }
+        long size = sizeOf(ref);
+        if (deleteQuietly(ref)) {
+            storedBytes.addAndGet(-size);
+        }
+    }
+
+    private Path refFor(String revisionKey) {
+        return directory.resolve(hash(revisionKey.getBytes(StandardCharsets.UTF_8)) + REF_SUFFIX);
+    }
+
+    private Path contentFor(Path ref) throws IOException {
+        return directory.resolve(Files.readString(ref, StandardCharsets.UTF_8).trim() + CONTENT_SUFFIX);
+    }
+
+    private static boolean isContent(Path file) {
+        return file.getFileName().toString().endsWith(CONTENT_SUFFIX);
+    }
+
+    private static boolean isRef(Path file) {
+        return file.getFileName().toString().endsWith(REF_SUFFIX);
+    }
+
+    private static boolean isStored(Path file) {
+        return isContent(file) || isRef(file);
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Copies every byte read from the download into a temp file. On close, reads whatever the
+     * caller left unread and stores the file if the download reached its end.
+     */
+    private final class TeeInputStream extends FilterInputStream {
+        private final String revisionKey;
+        private final Path temp;
+        private final OutputStream copy;
+        private final MessageDigest digest = sha256();
+        private long size;
+        private boolean complete;
+        private boolean copyFailed;
+        private boolean closed;
+
+        TeeInputStream(String revisionKey, InputStream in, Path temp) throws IOException {
+            super(in);
+            this.revisionKey = revisionKey;
+            this.temp = temp;
+            this.copy = new BufferedOutputStream(Files.newOutputStream(temp, StandardOpenOption.WRITE), 1 << 16);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                complete = true;
+            } else {
+                copy(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int count = in.read(bytes, offset, length);
+            if (count < 0) {
+                complete = true;
+            } else {
+                copy(bytes, offset, count);
+            }
+            return count;
+        }
+
+        // Skipped bytes still belong in the copy, so read them instead of skipping the download
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (count < 0) {
+                    break;
+                }
+                skipped += count;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void mark(int readLimit) {
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (!complete && !copyFailed) {
+                    drain();
+                }
+                in.close();
+            } finally {
+                boolean keep = complete && !copyFailed;
+                try {
+                    copy.close();
+                } catch (IOException e) {
+                    keep = false;
+                }
+                if (keep) {
+                    try {
+                        commit(revisionKey, temp, digest.digest(), size);
+                    } catch (IOException e) {
+                        log.warn("Could not keep raw content for {}: {}", revisionKey, e.getMessage());
+                        deleteQuietly(temp);
+                    }
+                } else {
+                    deleteQuietly(temp);
+                }
+            }
+        }
+
+        // The parser stopped early; fetch the rest so a larger budget can re-parse from disk
+        private void drain() {
+            byte[] buffer = new byte[8192];
+            try {
+                int count;
+                while ((count = in.read(buffer)) >= 0) {
+                    copy(buffer, 0, count);
+                    if (copyFailed) {
+                        return;
+                    }
+                    if (maxDownloadBytes > 0 && size > maxDownloadBytes) {
+                        log.debug("Raw content for {} exceeds {} bytes, not keeping it", revisionKey, maxDownloadBytes);
+                        return;
+                    }
+                }
+                complete = true;
+            } catch (IOException e) {
+                log.warn("Could not finish downloading raw content for {}: {}", revisionKey, e.getMessage());
+            }
+        }
+
+        private void copy(byte[] bytes, int offset, int length) {
+            if (copyFailed || length == 0) {
+                return;
+            }
+            try {
+                copy.write(bytes, offset, length);
+                digest.update(bytes, offset, length);
+                size += length;
+            } catch (IOException e) {
+                // A full disk must not fail the extraction; the download just is not kept
+                log.warn("Could not copy raw content for {}: {}", revisionKey, e.getMessage());
+                copyFailed = true;
+            }
+        }
+    }
+}
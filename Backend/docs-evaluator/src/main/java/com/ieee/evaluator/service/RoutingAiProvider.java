@@ -0,0 +1,417 @@
+package com.ieee.evaluator.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The "auto" model: spreads each request over the registered providers in preference order.
+ * <ul>
+ *   <li>Hedging: if the current provider has not answered within its recent p95 latency, the
+ *       next provider is started as well and whichever answers first wins.</li>
+ *   <li>Failover: an error (or a failed-call string in place of a report) moves straight on to
+ *       the next provider. A model's own "ERROR: ..." verdict is an answer and is returned.</li>
+ *   <li>Circuit breaker: a provider that keeps failing is skipped for a cool-down period, then
+ *       let through for one trial request. With every circuit open the request fails fast.</li>
+ * </ul>
+ * Not a Spring bean, so it is not picked up as one of the providers it wraps. Use a
+ * {@link #session()} to find out which provider actually answered.
+ */
+@Slf4j
+public class RoutingAiProvider implements AiProvider {
+
+    public static final String NAME = "auto";
+
+    private static final int LATENCY_SAMPLES = 100;
+    private static final int MIN_SAMPLES_FOR_P95 = 20;
+
+    /**
+     * Recent successful latencies of one provider, used to pick its hedge delay.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int count;
+        private int next;
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long p95(long fallback) {
+            if (count < MIN_SAMPLES_FOR_P95) {
+                return fallback;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+
+    /**
+     * Closed until {@code failureThreshold} consecutive failures, then open for {@code openMillis},
+     * then half-open: a single trial request decides whether it closes again.
+     */
+    private static final class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openMillis;
+        private int consecutiveFailures;
+        private long openedAt = -1;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, long openMillis) {
+            this.failureThreshold = failureThreshold;
+            this.openMillis = openMillis;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (openedAt < 0) {
+                return true;
+            }
+            if (System.currentTimeMillis() - openedAt < openMillis || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            openedAt = -1;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (trialInFlight || consecutiveFailures >= failureThreshold) {
+                openedAt = System.currentTimeMillis();
+            }
+            trialInFlight = false;
+        }
+
+        // A hedged request that lost the race proves nothing either way
+        synchronized void onCancelled() {
+            trialInFlight = false;
+        }
+
+        synchronized String state() {
+            if (openedAt < 0) {
+                return "CLOSED";
+            }
+            return System.currentTimeMillis() - openedAt < openMillis ? "OPEN" : "HALF_OPEN";
+        }
+    }
+
+    private static final class Member {
+        private final AiProvider provider;
+        private final LatencyWindow latency = new LatencyWindow();
+        private final CircuitBreaker breaker;
+
+        Member(AiProvider provider, CircuitBreaker breaker) {
+            this.provider = provider;
+            this.breaker = breaker;
+        }
+    }
+
+    private final List<Member> members = new ArrayList<>();
+    private final long defaultHedgeDelayMs;
+    private final long minHedgeDelayMs;
+    private final boolean hedgingEnabled;
+    private final ExecutorService executor = EvaluatorMetrics.propagating(Executors.newVirtualThreadPerTaskExecutor());
+
+    /**
+     * @param providers the providers to route over, most preferred first
+     */
+    public RoutingAiProvider(List<AiProvider> providers, boolean hedgingEnabled, long defaultHedgeDelayMs,
+                             long minHedgeDelayMs, int failureThreshold, long openMillis) {
+        for (AiProvider provider : providers) {
+            members.add(new Member(provider, new CircuitBreaker(failureThreshold, openMillis)));
+        }
+        this.hedgingEnabled = hedgingEnabled;
+        this.defaultHedgeDelayMs = defaultHedgeDelayMs;
+        this.minHedgeDelayMs = minHedgeDelayMs;
+    }
+
+    @Override
+    public String getProviderName() {
+        return NAME;
+    }
+
+    @Override
+    public String getModelId() {
+        return NAME;
+    }
+
+    /**
+     * The smallest budget among the members, so a chunk sized for "auto" fits whichever answers.
+     */
+    @Override
+    public int getMaxInputChars() {
+        int budget = -1;
+        for (Member member : members) {
+            int memberBudget = member.provider.getMaxInputChars();
+            if (memberBudget >= 0 && (budget < 0 || memberBudget < budget)) {
+                budget = memberBudget;
+            }
+        }
+        return budget;
+    }
+
+    @Override
+    public String analyze(String text) throws Exception {
+        return analyze(text, answered -> { });
+    }
+
+    @Override
+    public String complete(String prompt) throws Exception {
+        return complete(prompt, answered -> { });
+    }
+
+    @Override
+    public String completeStreaming(String prompt, Consumer<String> onToken) throws Exception {
+        return completeStreaming(prompt, onToken, answered -> { });
+    }
+
+    /**
+     * Routes the calls of one evaluation and remembers which providers answered them, so the
+     * report can be attributed to a real model instead of "auto".
+     */
+    public Session session() {
+        return new Session();
+    }
+
+    /**
+     * This router as seen by one evaluation. Shares the router's circuits and latency windows;
+     * only the record of who answered is its own.
+     */
+    public final class Session implements AiProvider {
+        private final Set<String> answeredBy = new LinkedHashSet<>();
+
+        @Override
+        public String getProviderName() {
+            return NAME;
+        }
+
+        @Override
+        public String getModelId() {
+            return NAME;
+        }
+
+        @Override
+        public int getMaxInputChars() {
+            return RoutingAiProvider.this.getMaxInputChars();
+        }
+
+        @Override
+        public String analyze(String text) throws Exception {
+            return RoutingAiProvider.this.analyze(text, this::record);
+        }
+
+        @Override
+        public String complete(String prompt) throws Exception {
+            return RoutingAiProvider.this.complete(prompt, this::record);
+        }
+
+        @Override
+        public String completeStreaming(String prompt, Consumer<String> onToken) throws Exception {
+            return RoutingAiProvider.this.completeStreaming(prompt, onToken, this::record);
+        }
+
+        /**
+         * The providers that answered, joined with "+" when the chunks of a large document went
+         * to different ones; {@code "auto"} if none has answered yet.
+         */
+        public synchronized String getAnsweredBy() {
+            return answeredBy.isEmpty() ? NAME : String.join("+", answeredBy);
+        }
+
+        // Chunks are reviewed in parallel, so several calls may finish at once
+        private synchronized void record(AiProvider provider) {
+            answeredBy.add(provider.getProviderName());
+        }
+    }
+
+    private String analyze(String text, Consumer<AiProvider> onAnswer) throws Exception {
+        int budget = getMaxInputChars();
+        String input = budget >= 0 && text.length() > budget
+                ? text.substring(0, budget) + "...[truncated]"
+                : text;
+        return complete(EvaluationPrompts.analysisPrompt(input), onAnswer);
+    }
+
+    private String complete(String prompt, Consumer<AiProvider> onAnswer) throws Exception {
+        ExecutorCompletionService<String> race = new ExecutorCompletionService<>(executor);
+        Map<Future<String>, Member> running = new LinkedHashMap<>();
+        Exception lastFailure = null;
+        int nextCandidate = 0;
+
+        try {
+            while (true) {
+                // Failover: nothing left running, so move on to the next provider
+                if (running.isEmpty()) {
+                    nextCandidate = startNext(nextCandidate, prompt, race, running);
+                    if (running.isEmpty()) {
+                        break;
+                    }
+                }
+
+                boolean canHedge = hedgingEnabled && nextCandidate < members.size();
+                Future<String> finished = canHedge
+                        ? race.poll(hedgeDelayMs(running), TimeUnit.MILLISECONDS)
+                        : race.take();
+
+                if (finished == null) {
+                    // Hedge: the running provider is slower than usual, start the next one alongside it
+                    log.info("No answer within hedge delay, also asking the next provider");
+                    nextCandidate = startNext(nextCandidate, prompt, race, running);
+                    continue;
+                }
+
+                Member member = running.remove(finished);
+                try {
+                    String result = finished.get();
+                    for (Map.Entry<Future<String>, Member> loser : running.entrySet()) {
+                        loser.getKey().cancel(true);
+                        loser.getValue().breaker.onCancelled();
+                    }
+                    running.clear();
+                    onAnswer.accept(member.provider);
+                    return result;
+                } catch (ExecutionException e) {
+                    lastFailure = e.getCause() instanceof Exception cause ? cause : e;
+                    log.warn("Provider {} failed, trying the next one: {}", member.provider.getProviderName(), lastFailure.getMessage());
+                }
+            }
+        } finally {
+            for (Map.Entry<Future<String>, Member> abandoned : running.entrySet()) {
+                abandoned.getKey().cancel(true);
+                abandoned.getValue().breaker.onCancelled();
+            }
+        }
+
+        throw lastFailure != null ? lastFailure : allCircuitsOpen();
+    }
+
+    /**
+     * Streams from the first healthy provider. Once tokens have reached the caller the answer
+     * cannot be swapped, so failover only happens before the first token and there is no hedging.
+     */
+    private String completeStreaming(String prompt, Consumer<String> onToken, Consumer<AiProvider> onAnswer) throws Exception {
+        Exception lastFailure = null;
+        for (Member member : members) {
+            if (!member.breaker.tryAcquire()) continue;
+
+            boolean[] started = {false};
+            long start = System.nanoTime();
+            try {
+                String result = member.provider.completeStreaming(prompt, token -> {
+                    started[0] = true;
+                    onToken.accept(token);
+                });
+                checkResult(member, result);
+                member.latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                member.breaker.onSuccess();
+                onAnswer.accept(member.provider);
+                return result;
+            } catch (Exception e) {
+                member.breaker.onFailure();
+                if (started[0]) {
+                    throw e;
+                }
+                lastFailure = e;
+                log.warn("Provider {} failed before streaming, trying the next one: {}", member.provider.getProviderName(), e.getMessage());
+            }
+        }
+        throw lastFailure != null ? lastFailure : allCircuitsOpen();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Member member : members) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("circuit", member.breaker.state());
+            entry.put("hedgeDelayMs", member.latency.p95(defaultHedgeDelayMs));
+            stats.put(member.provider.getProviderName(), entry);
+        }
+        return stats;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts the first member from {@code from} onwards whose circuit lets a request through and
+     * returns the index to continue from. Starts nothing if none is left.
+     */
+    private int startNext(int from, String prompt, ExecutorCompletionService<String> race, Map<Future<String>, Member> running) {
+        for (int i = from; i < members.size(); i++) {
+            Member member = members.get(i);
+            if (member.breaker.tryAcquire()) {
+                start(member, prompt, race, running);
+                return i + 1;
+            }
+        }
+        return members.size();
+    }
+
+    private void start(Member member, String prompt, ExecutorCompletionService<String> race, Map<Future<String>, Member> running) {
+        Future<String> future = race.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                String result = member.provider.complete(prompt);
+                checkResult(member, result);
+                member.latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                member.breaker.onSuccess();
+                return result;
+            } catch (InterruptedException e) {
+                throw e; // lost the hedge race
+            } catch (Exception e) {
+                if (!Thread.currentThread().isInterrupted()) {
+                    member.breaker.onFailure();
+                }
+                throw e;
+            }
+        });
+        running.put(future, member);
+    }
+
+    private long hedgeDelayMs(Map<Future<String>, Member> running) {
+        // Wait on the most recently started provider's p95
+        Member newest = null;
+        for (Member member : running.values()) {
+            newest = member;
+        }
+        long p95 = newest != null ? newest.latency.p95(defaultHedgeDelayMs) : defaultHedgeDelayMs;
+        return Math.max(p95, minHedgeDelayMs);
+    }
+
+    private static IllegalStateException allCircuitsOpen() {
+        return new IllegalStateException("All AI providers are temporarily unavailable; try again shortly.");
+    }
+
+    /**
+     * Some providers report failed calls as text instead of throwing; count those as failures too.
+     * A rejection ("ERROR: Invalid ...") is what the prompt asks for, so it is a healthy answer.
+     */
+    private static void checkResult(Member member, String result) {
+        if (EvaluationResults.isTransportFailure(result)) {
+            throw new IllegalStateException(member.provider.getProviderName() + " returned no usable report: "
+                    + (result == null ? "null" : result.substring(0, Math.min(result.length(), 200))));
+        }
+    }
+}
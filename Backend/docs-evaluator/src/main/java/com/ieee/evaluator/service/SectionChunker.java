@@ -0,0 +1,145 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.DocumentChunk;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits extracted document text into chunks that follow the document's top-level sections
+ * (IEEE 830: Introduction, Overall Description, Specific Requirements, ...), so each chunk can be
+ * evaluated on its own without cutting a section in half where that can be avoided.
+ */
+@Component
+public class SectionChunker {
+
+    // Known IEEE 830 / 1016 / 1058 / 829 chapter titles, optionally numbered ("1", "2.", "3 -")
+    private static final Pattern KNOWN_HEADING = Pattern.compile(
+            "^\\s*(?:\\d{1,2}\\.?\\s*[-–.)]?\\s*)?"
+            + "(Introduction|Overall Description|Specific Requirements|Supporting Information|Appendix|Appendices"
+            + "|System Overview|System Architecture|Design Considerations|Data Design|Component Design"
+            + "|Human Interface Design|Project Overview|Project Organization|Managerial Process"
+            + "|Technical Process|Test Plan|Test Design|Test Cases|Test Procedures|References|Glossary)\\s*:?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    // Any other short top-level numbered heading such as "4. Verification" (but not "4.1 Something")
+    private static final Pattern NUMBERED_HEADING = Pattern.compile("^\\s*\\d{1,2}\\.?\\s+([A-Z][A-Za-z /&,-]{2,60})$");
+    private static final int MAX_HEADING_WORDS = 6;
+
+    // Numbered requirements ("1. The system shall log users out") are sentences, headings are not
+    private static final Pattern SENTENCE_VERB = Pattern.compile(
+            "\\b(shall|should|must|will|can|may|is|are|was|were|be|has|have|does|allows?|provides?|displays?)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    // Table-of-contents entries ("1. Introduction ........ 3") look like headings but are not
+    private static final Pattern TOC_ENTRY = Pattern.compile("(\\.{3,}|\\s\\d{1,3})\\s*$");
+
+    /**
+     * Splits {@code text} into chunks of at most {@code maxChunkChars}. Consecutive small sections
+     * are packed together; a section larger than the limit is split on paragraph boundaries.
+     */
+    public List<DocumentChunk> split(String text, int maxChunkChars) {
+        List<DocumentChunk> chunks = new ArrayList<>();
+        DocumentChunk current = null;
+
+        for (DocumentChunk section : findSections(text)) {
+            if (section.getText().length() > maxChunkChars) {
+                if (current != null) {
+                    chunks.add(current);
+                    current = null;
+                }
+                chunks.addAll(splitOversized(section, maxChunkChars));
+                continue;
+            }
+
+            if (current != null && current.getText().length() + section.getText().length() + 1 <= maxChunkChars) {
+                current.setTitle(current.getTitle() + " / " + section.getTitle());
+                current.setText(current.getText() + "\n" + section.getText());
+            } else {
+                if (current != null) {
+                    chunks.add(current);
+                }
+                current = new DocumentChunk(section.getTitle(), section.getText());
+            }
+        }
+
+        if (current != null) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private List<DocumentChunk> findSections(String text) {
+        List<DocumentChunk> sections = new ArrayList<>();
+        String title = "Front Matter";
+        int sectionStart = 0;
+        int lineStart = 0;
+
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) lineEnd = text.length();
+
+            String line = text.substring(lineStart, lineEnd).trim();
+            if (isHeading(line) && lineStart > sectionStart) {
+                addSection(sections, title, text.substring(sectionStart, lineStart));
+                title = line;
+                sectionStart = lineStart;
+            } else if (isHeading(line)) {
+                title = line;
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        addSection(sections, title, text.substring(sectionStart));
+        return sections;
+    }
+
+    private boolean isHeading(String line) {
+        if (line.isEmpty() || line.length() > 80 || TOC_ENTRY.matcher(line).find()) {
+            return false;
+        }
+        return KNOWN_HEADING.matcher(line).matches() || isNumberedHeading(line);
+    }
+
+    private static boolean isNumberedHeading(String line) {
+        Matcher matcher = NUMBERED_HEADING.matcher(line);
+        if (!matcher.matches()) {
+            return false;
+        }
+        String title = matcher.group(1).trim();
+        return title.split("\\s+").length <= MAX_HEADING_WORDS && !SENTENCE_VERB.matcher(title).find();
+    }
+
+    private void addSection(List<DocumentChunk> sections, String title, String body) {
+        if (!body.isBlank()) {
+            sections.add(new DocumentChunk(title, body));
+        }
+    }
+
+    private List<DocumentChunk> splitOversized(DocumentChunk section, int maxChunkChars) {
+        List<DocumentChunk> parts = new ArrayList<>();
+        String text = section.getText();
+        int start = 0;
+        int part = 1;
+
+        while (start < text.length()) {
+            int end = Math.min(start + maxChunkChars, text.length());
+            if (end < text.length()) {
+                // Prefer a paragraph break, then a line break, in the back half of the window
+                int paragraph = text.lastIndexOf("\n\n", end);
+                int line = text.lastIndexOf('\n', end);
+                if (paragraph > start + maxChunkChars / 2) {
+                    end = paragraph;
+                } else if (line > start + maxChunkChars / 2) {
+                    end = line;
+                }
+            }
+            parts.add(new DocumentChunk(section.getTitle() + " (part " + part++ + ")", text.substring(start, end)));
+            start = end;
+        }
+        return parts;
+    }
+}
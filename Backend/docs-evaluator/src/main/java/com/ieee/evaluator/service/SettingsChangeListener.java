@@ -0,0 +1,94 @@
+package com.ieee.evaluator.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * Reloads the settings snapshot as soon as another node publishes a change. LISTEN does not work
+ * through the Supabase transaction pooler, so this holds its own session on the direct
+ * connection URL. The periodic refresh in {@link DynamicConfigService} still covers any missed
+ * notifications while this connection is down.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "evaluator.settings.notify.enabled", havingValue = "true")
+public class SettingsChangeListener {
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 30_000;
+
+    private final DynamicConfigService configService;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running = true;
+    private Thread listenerThread;
+
+    public SettingsChangeListener(DynamicConfigService configService,
+                                  @Value("${evaluator.settings.notify.url}") String url,
+                                  @Value("${spring.datasource.username}") String username,
+                                  @Value("${spring.datasource.password:}") String password) {
+        this.configService = configService;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listenerThread = Thread.ofVirtual().name("settings-listener").start(this::listenLoop);
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + DynamicConfigService.NOTIFY_CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for settings changes on channel {}", DynamicConfigService.NOTIFY_CHANNEL);
+
+                // Anything changed while we were disconnected
+                configService.reload();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        log.info("Settings changed on another node ({}), reloading", notifications[0].getParameter());
+                        configService.reload();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Settings listener disconnected, retrying in {} ms: {}", RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ieee.evaluator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for Google Sheets ranges with a fixed TTL. Concurrent misses on the same
+ * range share one in-flight load (single flight), so a burst of logins costs one API call.
+ */
+@Component
+public class SheetRangeCache {
+
+    @FunctionalInterface
+    public interface RangeLoader {
+        List<List<Object>> load() throws IOException;
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<List<List<Object>>> values = new CompletableFuture<>();
+        private volatile long loadedAtNanos;
+    }
+
+    private final long ttlNanos;
+    private final EvaluatorMetrics metrics;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SheetRangeCache(@Value("${evaluator.sheets.cache-ttl-seconds:60}") long ttlSeconds, EvaluatorMetrics metrics) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.metrics = metrics;
+    }
+
+    public List<List<Object>> get(String spreadsheetId, String range, RangeLoader loader) throws IOException {
+        String key = spreadsheetId + "|" + range;
+
+        while (true) {
+            Entry existing = entries.get(key);
+
+            if (existing != null && !existing.values.isDone()) {
+                // Someone else is already loading this range: wait for their result
+                coalesced.incrementAndGet();
+                metrics.count("evaluator.sheets.cache", "result", "coalesced");
+                return await(existing);
+            }
+
+            if (existing != null && !existing.values.isCompletedExceptionally()
+                    && System.nanoTime() - existing.loadedAtNanos < ttlNanos) {
+                hits.incrementAndGet();
+                metrics.count("evaluator.sheets.cache", "result", "hit");
+                return await(existing);
+            }
+
+            Entry fresh = new Entry();
+            boolean won = existing == null
+                    ? entries.putIfAbsent(key, fresh) == null
+                    : entries.replace(key, existing, fresh);
+            if (!won) {
+                continue; // another thread swapped the entry first, re-check what it put there
+            }
+
+            misses.incrementAndGet();
+            metrics.count("evaluator.sheets.cache", "result", "miss");
+            try {
+                List<List<Object>> values = metrics.time("evaluator.sheets.read", loader::load, "range", range);
+                fresh.loadedAtNanos = System.nanoTime();
+                fresh.values.complete(values);
+                return values;
+            } catch (IOException | RuntimeException e) {
+                entries.remove(key, fresh);
+                fresh.values.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Drops every cached copy of {@code range}, or the whole cache when {@code range} is null.
+     */
+    public void invalidate(String range) {
+        if (range == null) {
+            entries.clear();
+            return;
+        }
+        entries.keySet().removeIf(key -> key.endsWith("|" + range));
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "entries", entries.size(),
+                "ttlSeconds", ttlNanos / 1_000_000_000L,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "coalesced", coalesced.get()
+        );
+    }
+
+    private List<List<Object>> await(Entry entry) throws IOException {
+        try {
+            return entry.values.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for sheet range", e);
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.ieee.evaluator.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads and extracts newly synced submissions in the background, so the text (and the raw
+ * bytes) are already cached when a teacher clicks analyze.
+ *
+ * <p>Pre-fetching must never compete with interactive work: it runs on a single low-priority
+ * thread, waits while any evaluation is in flight, and drops new files once its bounded queue
+ * is full. A dropped file is simply extracted on demand later.
+ */
+@Service
+@Slf4j
+public class SubmissionPrefetcher {
+
+    private final GoogleDocsService docsService;
+    private final DriveMetadataResolver metadataResolver;
+    private final AiService aiService;
+    private final EvaluatorMetrics metrics;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long idleBackoffMs;
+
+    private final BlockingQueue<String> queue;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private volatile Thread worker;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong extracted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong backoffs = new AtomicLong();
+
+    public SubmissionPrefetcher(GoogleDocsService docsService,
+                                DriveMetadataResolver metadataResolver,
+                                AiService aiService,
+                                EvaluatorMetrics metrics,
+                                @Value("${evaluator.prefetch.enabled:true}") boolean enabled,
+                                @Value("${evaluator.prefetch.queue-capacity:500}") int queueCapacity,
+                                @Value("${evaluator.prefetch.batch-size:25}") int batchSize,
+                                @Value("${evaluator.prefetch.idle-backoff-ms:2000}") long idleBackoffMs) {
+        this.docsService = docsService;
+        this.metadataResolver = metadataResolver;
+        this.aiService = aiService;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.idleBackoffMs = Math.max(100, idleBackoffMs);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "submission-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        // Assigned before start: run() exits as soon as it is no longer the registered worker
+        worker = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Queues files for background extraction. Never blocks: files already queued are ignored and
+     * files that do not fit in the queue are dropped.
+     */
+    public void enqueue(Collection<String> fileIds) {
+        if (!enabled) {
+            return;
+        }
+        for (String fileId : fileIds) {
+            if (fileId == null || fileId.isBlank() || !queued.add(fileId)) continue;
+            if (queue.offer(fileId)) {
+                enqueued.incrementAndGet();
+            } else {
+                queued.remove(fileId);
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queued", queue.size());
+        stats.put("enqueued", enqueued.get());
+        stats.put("dropped", dropped.get());
+        stats.put("extracted", extracted.get());
+        stats.put("skipped", skipped.get());
+        stats.put("failed", failed.get());
+        stats.put("backoffs", backoffs.get());
+        return stats;
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                String first = queue.poll(30, TimeUnit.SECONDS);
+                if (first == null) continue;
+
+                List<String> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                queued.removeAll(batch);
+
+                prefetch(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Submission pre-fetch batch failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void prefetch(List<String> fileIds) throws Exception {
+        waitForIdle();
+        Map<String, DriveMetadataResolver.Resolved> metadata = metadataResolver.resolve(fileIds);
+
+        // Extract with the largest budget any provider needs, so every model finds the text cached
+        int budget = aiService.maxExtractionBudget();
+        for (DriveMetadataResolver.Resolved resolved : metadata.values()) {
+            if (!resolved.ok()) {
+                skipped.incrementAndGet();
+                continue;
+            }
+            waitForIdle();
+            try {
+                docsService.checkSupported(resolved.file());
+                // Its own trace: nothing upstream is waiting on a pre-fetch
+                metrics.time("evaluator.prefetch", () -> docsService.extractText(resolved.file(), budget));
+                extracted.incrementAndGet();
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.debug("Pre-fetch of {} failed: {}", resolved.file().getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Back-pressure: hold off while a teacher (or a batch job) is waiting on an evaluation.
+     */
+    private void waitForIdle() throws InterruptedException {
+        while (aiService.activeEvaluations() > 0) {
+            backoffs.incrementAndGet();
+            Thread.sleep(idleBackoffMs);
+        }
+    }
+}
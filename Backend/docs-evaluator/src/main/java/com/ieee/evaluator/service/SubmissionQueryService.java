@@ -0,0 +1,53 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.Submission;
+import com.ieee.evaluator.model.SubmissionLabel;
+import com.ieee.evaluator.repository.SubmissionRepository;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class SubmissionQueryService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final SubmissionRepository submissionRepository;
+
+    public SubmissionQueryService(SubmissionRepository submissionRepository) {
+        this.submissionRepository = submissionRepository;
+    }
+
+    /**
+     * Filters the persisted submissions; every filter is optional and each maps to an indexed column.
+     * Results are newest first.
+     */
+    public Page<Submission> search(String docType, String section, String teamCode, Boolean late, int page, int size) {
+        Specification<Submission> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (docType != null && !docType.isBlank()) {
+                predicates.add(cb.equal(root.get("docType"), docType.trim().toUpperCase()));
+            }
+            if (section != null && !section.isBlank()) {
+                predicates.add(cb.equal(root.get("section"), section.trim()));
+            }
+            if (teamCode != null && !teamCode.isBlank()) {
+                predicates.add(cb.equal(root.get("teamCode"), SubmissionLabel.normalizeTeamCode(teamCode)));
+            }
+            if (late != null) {
+                predicates.add(cb.equal(root.get("isLate"), late));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(Sort.Order.desc("submittedAt"), Sort.Order.asc("submissionKey")));
+        return submissionRepository.findAll(spec, pageRequest);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.DeliverableConfig;
+import com.ieee.evaluator.model.Submission;
+import com.ieee.evaluator.model.SubmissionLabel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns Google Form response rows into {@link Submission}s. Holds no Spring state, so a single
+ * instance can be built per sync with that sync's column layout and deadlines.
+ */
+@Slf4j
+public class SubmissionRowParser {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("M/d/yyyy H:mm:ss");
+    private static final Pattern DRIVE_ID_PATTERN = Pattern.compile("(?:/d/|folders/|id=)([a-zA-Z0-9_-]{25,})");
+
+    private final int colTimestamp;
+    private final int colName;
+    private final int colSection;
+    private final int colTeam;
+    private final Map<String, Integer> docColumns;
+    private final Map<String, DeliverableConfig> configMap;
+
+    /**
+     * @param docColumns doc type ("SRS", "SDD", ...) to its link column, in the order they should be read
+     */
+    public SubmissionRowParser(int colTimestamp, int colName, int colSection, int colTeam,
+                               Map<String, Integer> docColumns, Map<String, DeliverableConfig> configMap) {
+        this.colTimestamp = colTimestamp;
+        this.colName = colName;
+        this.colSection = colSection;
+        this.colTeam = colTeam;
+        this.docColumns = docColumns;
+        this.configMap = configMap;
+    }
+
+    /**
+     * Parses one response row; a row can carry up to one file per document type.
+     */
+    public void parseRow(List<Object> row, int rowIndex, Map<String, Submission> submissionMap) {
+        if (row == null || row.isEmpty()) return;
+
+        // Student Tags
+        String timestampStr = timestampOf(row);
+        String studentName  = row.size() > colName      && colName >= 0      ? row.get(colName).toString()      : "Unknown Student";
+        String teamCode     = row.size() > colTeam      && colTeam >= 0      ? row.get(colTeam).toString()      : "No Team";
+        String section      = row.size() > colSection   && colSection >= 0   ? row.get(colSection).toString()   : "No Section";
+
+        // Parsed once per row rather than once per document column
+        LocalDateTime submissionTime = null;
+        if (!timestampStr.equals("Unknown Date")) {
+            try {
+                submissionTime = LocalDateTime.parse(timestampStr, TIMESTAMP_FORMATTER);
+            } catch (Exception e) {
+                log.warn("Could not parse date for {}: {}", studentName, e.getMessage());
+            }
+        }
+
+        // File Tags
+        for (Map.Entry<String, Integer> docColumn : docColumns.entrySet()) {
+            extractAndAddFile(row, rowIndex, docColumn.getValue(), docColumn.getKey(),
+                    studentName, teamCode, section, timestampStr, submissionTime, submissionMap);
+        }
+    }
+
+    /**
+     * The raw timestamp cell of a row, or "Unknown Date" when the column is missing.
+     */
+    public String timestampOf(List<Object> row) {
+        return row.size() > colTimestamp && colTimestamp >= 0 ? row.get(colTimestamp).toString() : "Unknown Date";
+    }
+
+    private void extractAndAddFile(List<Object> row, int rowIndex, int colIndex, String docType, String studentName, String teamCode, String section, String timestampStr, LocalDateTime submissionTime, Map<String, Submission> submissionMap) {
+        if (colIndex < 0 || colIndex >= row.size()) return;
+
+        String url = row.get(colIndex).toString().trim();
+        if (url.isEmpty()) return;
+
+        String fileId = extractIdFromUrl(url);
+        if (fileId == null) return;
+
+        boolean isLate = false;
+        DeliverableConfig config = configMap.get(docType);
+
+        if (config != null && submissionTime != null) {
+            isLate = submissionTime.isAfter(config.getDeadline());
+        }
+
+        Submission file = new Submission();
+        file.setFileId(fileId);
+        file.setDocType(docType);
+        file.setSection(section.trim());
+        file.setTeamCode(SubmissionLabel.normalizeTeamCode(teamCode));
+        file.setStudentName(studentName.trim());
+        file.setSubmittedAt(submissionTime);
+        file.setIsLate(isLate);
+        file.setWebViewLink(url);
+
+        String statusPrefix = isLate ? "[LATE] " : "";
+        file.setName(statusPrefix + "[" + docType + "] " + section + " - " + teamCode + " | " + studentName);
+        file.setSubmittedAtText(timestampStr);
+        file.setMimeType("application/vnd.google-apps.document");
+        file.setRowIndex(rowIndex);
+
+        // Key is fileId + docType so that the same Drive file submitted under
+        // different document types (e.g. a student reusing one link) are kept
+        // as separate entries, while true duplicates (same file, same type,
+        // multiple rows) are collapsed to the latest submission.
+        file.setSubmissionKey(fileId + "_" + docType);
+        submissionMap.put(file.getSubmissionKey(), file);
+    }
+
+    public static String extractIdFromUrl(String url) {
+        if (url == null || url.isEmpty()) return null;
+        Matcher matcher = DRIVE_ID_PATTERN.matcher(url);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
@@ -4,34 +4,88 @@ import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.model.ValueRange;
 import com.ieee.evaluator.model.DriveFile;
 import com.ieee.evaluator.model.DeliverableConfig;
+import com.ieee.evaluator.model.Submission;
+import com.ieee.evaluator.model.SyncState;
+import com.ieee.evaluator.repository.SubmissionRepository;
+import com.ieee.evaluator.repository.SyncStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
+@Slf4j
 public class SubmissionSyncService {
 
+    private static final String SYNC_KEY = "submissions";
+
+    // Bump when the submissions table gains columns or a column's format changes, so existing rows are rebuilt on the next sync
+    private static final String SCHEMA_VERSION = "3";
+
+    // "'Form Responses 1'!A2:Z" -> sheet prefix, start column, start row, end column, optional end row
+    private static final Pattern A1_RANGE = Pattern.compile("^(.*!)?([A-Z]+)(\\d+):([A-Z]+)(\\d+)?$");
+
     private final Sheets sheetsService;
     private final GoogleSheetsService configLoader;
     private final DynamicConfigService configService;
+    private final SubmissionRepository submissionRepository;
+    private final SyncStateRepository syncStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SubmissionPrefetcher prefetcher;
+    private final JdbcTemplate jdbcTemplate;
 
-    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("M/d/yyyy H:mm:ss");
-
-    public SubmissionSyncService(Sheets sheetsService, GoogleSheetsService configLoader, DynamicConfigService configService) {
+    public SubmissionSyncService(Sheets sheetsService, GoogleSheetsService configLoader, DynamicConfigService configService,
+                                 SubmissionRepository submissionRepository, SyncStateRepository syncStateRepository,
+                                 TransactionTemplate transactionTemplate, SubmissionPrefetcher prefetcher,
+                                 JdbcTemplate jdbcTemplate) {
         this.sheetsService = sheetsService;
         this.configLoader = configLoader;
         this.configService = configService;
+        this.submissionRepository = submissionRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.prefetcher = prefetcher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public List<DriveFile> getLatestSubmissions() throws IOException {
+        return syncSubmissions(false);
+    }
+
+    /**
+     * Same as {@link #getLatestSubmissions()}, but returns the stored rows so callers can filter
+     * on columns such as {@code docType} instead of parsing the display name.
+     */
+    public List<Submission> getLatestSubmissionRows() throws IOException {
+        return syncSubmissionRows(false);
+    }
+
+    /**
+     * Brings the submissions table up to date with the responses sheet and returns every latest
+     * submission. {@code synchronized} covers this instance; writes are also serialized across
+     * instances by a Postgres advisory lock (see {@link #lockSync()}). Normally only rows after the stored watermark are fetched; {@code forceFull}
+     * (or any sign the watermark can no longer be trusted) re-reads the whole range instead.
+     *
+     * <p>Submissions come back in the sheet order of their latest row, so a file that was
+     * re-submitted moves down to where it was last submitted. (Before the table existed the list
+     * kept each file at its first appearance.) Files submitted in the same row are ordered by key.
+     */
+    public List<DriveFile> syncSubmissions(boolean forceFull) throws IOException {
+        return syncSubmissionRows(forceFull).stream()
+                .map(Submission::toDriveFile)
+                .toList();
+    }
+
+    private synchronized List<Submission> syncSubmissionRows(boolean forceFull) throws IOException {
         Map<String, DeliverableConfig> configMap;
         try {
             configMap = configLoader.getDeliverableConfigs();
@@ -49,94 +103,167 @@ public class SubmissionSyncService {
         int colTeam     = getColumnIndexSafely("COL_INDEX_TEAM");
 
         // Fetch Specific Document Columns
-        int colSrs  = getColumnIndexSafely("COL_INDEX_SRS");
-        int colSdd  = getColumnIndexSafely("COL_INDEX_SDD");
-        int colSpmp = getColumnIndexSafely("COL_INDEX_SPMP");
-        int colStd  = getColumnIndexSafely("COL_INDEX_STD");
+        Map<String, Integer> docColumns = new LinkedHashMap<>();
+        docColumns.put("SRS",  getColumnIndexSafely("COL_INDEX_SRS"));
+        docColumns.put("SDD",  getColumnIndexSafely("COL_INDEX_SDD"));
+        docColumns.put("SPMP", getColumnIndexSafely("COL_INDEX_SPMP"));
+        docColumns.put("STD",  getColumnIndexSafely("COL_INDEX_STD"));
+
+        SubmissionRowParser parser = new SubmissionRowParser(colTimestamp, colName, colSection, colTeam, docColumns, configMap);
+        String signature = SCHEMA_VERSION + "|" + spreadsheetId + "|" + responsesRange + "|" + colTimestamp + "," + colName + "," + colSection
+                + "," + colTeam + "|" + docColumns + "|" + new TreeMap<>(configMap);
+
+        SyncState state = syncStateRepository.findById(SYNC_KEY).orElse(null);
+        boolean incremental = !forceFull && state != null && state.getLastRowIndex() != null
+                && signature.equals(state.getConfigSignature());
+
+        if (incremental && !syncIncrementally(spreadsheetId, responsesRange, parser, state)) {
+            log.info("Submission watermark no longer matches the sheet, falling back to a full rebuild");
+            incremental = false;
+        }
+        if (!incremental) {
+            syncFully(spreadsheetId, responsesRange, parser, signature);
+        }
+
+        return submissionRepository.findAllByOrderByRowIndexAscSubmissionKeyAsc();
+    }
+
+    /**
+     * Fetches only the rows from the watermark onwards. The watermark row itself is re-read so
+     * we can confirm the sheet was not edited or re-sorted underneath us; returns false if it was.
+     */
+    private boolean syncIncrementally(String spreadsheetId, String responsesRange, SubmissionRowParser parser, SyncState state) throws IOException {
+        Matcher range = A1_RANGE.matcher(responsesRange.trim());
+        if (!range.matches()) {
+            return false;
+        }
+
+        String sheetPrefix = range.group(1) != null ? range.group(1) : "";
+        int firstRow = Integer.parseInt(range.group(3));
+        int watermarkRow = firstRow + state.getLastRowIndex();
+        String tailRange = sheetPrefix + range.group(2) + watermarkRow + ":" + range.group(4)
+                + (range.group(5) != null ? range.group(5) : "");
 
         ValueRange response = sheetsService.spreadsheets().values()
-                .get(spreadsheetId, responsesRange)
+                .get(spreadsheetId, tailRange)
                 .execute();
 
         List<List<Object>> values = response.getValues();
+        if (values == null || values.isEmpty() || !parser.timestampOf(values.get(0)).equals(state.getLastRowTimestamp())) {
+            return false;
+        }
 
-        // Use a LinkedHashMap keyed by fileId to automatically deduplicate.
-        // If the same Google Drive file appears in multiple rows (re-submissions),
-        // the LAST row wins — meaning the most recent submission takes precedence
-        // since Google Forms appends new responses at the bottom.
-        Map<String, DriveFile> submissionMap = new LinkedHashMap<>();
+        Map<String, Submission> submissionMap = new LinkedHashMap<>();
+        int lastRowIndex = state.getLastRowIndex();
+        String lastRowTimestamp = state.getLastRowTimestamp();
 
-        if (values != null) {
-            for (List<Object> row : values) {
-                if (row.isEmpty()) continue;
-
-                // Student Tags
-                String timestampStr = row.size() > colTimestamp && colTimestamp >= 0 ? row.get(colTimestamp).toString() : "Unknown Date";
-                String studentName  = row.size() > colName      && colName >= 0      ? row.get(colName).toString()      : "Unknown Student";
-                String teamCode     = row.size() > colTeam      && colTeam >= 0      ? row.get(colTeam).toString()      : "No Team";
-                String section      = row.size() > colSection   && colSection >= 0   ? row.get(colSection).toString()   : "No Section";
-
-                // File Tags
-                extractAndAddFile(row, colSrs,  "SRS",  studentName, teamCode, section, timestampStr, configMap, submissionMap);
-                extractAndAddFile(row, colSdd,  "SDD",  studentName, teamCode, section, timestampStr, configMap, submissionMap);
-                extractAndAddFile(row, colSpmp, "SPMP", studentName, teamCode, section, timestampStr, configMap, submissionMap);
-                extractAndAddFile(row, colStd,  "STD",  studentName, teamCode, section, timestampStr, configMap, submissionMap);
-            }
+        for (int i = 1; i < values.size(); i++) {
+            List<Object> row = values.get(i);
+            if (row == null || row.isEmpty()) continue;
+
+            int rowIndex = state.getLastRowIndex() + i;
+            parser.parseRow(row, rowIndex, submissionMap);
+            lastRowIndex = rowIndex;
+            lastRowTimestamp = parser.timestampOf(row);
         }
 
-        return new ArrayList<>(submissionMap.values());
-    }
+        int fetchedRows = values.size() - 1;
+        int newLastRowIndex = lastRowIndex;
+        String newLastRowTimestamp = lastRowTimestamp;
+        boolean applied = Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+            lockSync();
+            // Another instance may have applied these rows while we were reading the sheet
+            SyncState current = syncStateRepository.findById(SYNC_KEY).orElse(null);
+            if (current == null || !state.getLastRowIndex().equals(current.getLastRowIndex())
+                    || !state.getConfigSignature().equals(current.getConfigSignature())) {
+                return false;
+            }
+            saveSubmissions(submissionMap);
+            saveState(current, newLastRowIndex, newLastRowTimestamp, state.getConfigSignature(), fetchedRows, false);
+            return true;
+        }));
 
-    private int getColumnIndexSafely(String key) {
-        try {
-            String value = configService.getValue(key);
-            return (value != null && !value.trim().isEmpty()) ? Integer.parseInt(value.trim()) : -1;
-        } catch (Exception e) {
-            return -1;
+        if (!applied) {
+            log.info("Submission watermark moved during sync (another instance synced first), keeping its result");
+            return true;
         }
+        log.info("Incremental submission sync: {} new rows, {} submissions updated", fetchedRows, submissionMap.size());
+        prefetch(submissionMap);
+        return true;
     }
 
-    private void extractAndAddFile(List<Object> row, int colIndex, String docType, String studentName, String teamCode, String section, String timestampStr, Map<String, DeliverableConfig> configMap, Map<String, DriveFile> submissionMap) {
-        if (colIndex < 0 || colIndex >= row.size()) return;
+    private void syncFully(String spreadsheetId, String responsesRange, SubmissionRowParser parser, String signature) throws IOException {
+        ValueRange response = sheetsService.spreadsheets().values()
+                .get(spreadsheetId, responsesRange)
+                .execute();
 
-        String url = row.get(colIndex).toString().trim();
-        if (url.isEmpty()) return;
+        List<List<Object>> values = response.getValues();
 
-        String fileId = extractIdFromUrl(url);
-        if (fileId == null) return;
+        // Use a LinkedHashMap keyed by fileId to automatically deduplicate.
+        // If the same Google Drive file appears in multiple rows (re-submissions),
+        // the LAST row wins — meaning the most recent submission takes precedence
+        // since Google Forms appends new responses at the bottom.
+        Map<String, Submission> submissionMap = new LinkedHashMap<>();
+        Integer lastRowIndex = null;
+        String lastRowTimestamp = null;
 
-        boolean isLate = false;
-        DeliverableConfig config = configMap.get(docType);
+        if (values != null) {
+            for (int i = 0; i < values.size(); i++) {
+                List<Object> row = values.get(i);
+                if (row == null || row.isEmpty()) continue;
 
-        if (config != null && !timestampStr.equals("Unknown Date")) {
-            try {
-                LocalDateTime submissionTime = LocalDateTime.parse(timestampStr, TIMESTAMP_FORMATTER);
-                isLate = submissionTime.isAfter(config.getDeadline());
-            } catch (Exception e) {
-                System.err.println("Could not parse date for " + studentName + ": " + e.getMessage());
+                parser.parseRow(row, i, submissionMap);
+                lastRowIndex = i;
+                lastRowTimestamp = parser.timestampOf(row);
             }
         }
 
-        DriveFile file = new DriveFile();
-        file.setId(fileId);
-        file.setWebViewLink(url);
+        int fetchedRows = values != null ? values.size() : 0;
+        Integer newLastRowIndex = lastRowIndex;
+        String newLastRowTimestamp = lastRowTimestamp;
+        transactionTemplate.executeWithoutResult(tx -> {
+            lockSync();
+            submissionRepository.deleteAllInBatch();
+            saveSubmissions(submissionMap);
+            SyncState state = syncStateRepository.findById(SYNC_KEY).orElseGet(SyncState::new);
+            state.setSyncKey(SYNC_KEY);
+            saveState(state, newLastRowIndex, newLastRowTimestamp, signature, fetchedRows, true);
+        });
+
+        log.info("Full submission sync: {} rows, {} submissions", fetchedRows, submissionMap.size());
+        prefetch(submissionMap);
+    }
+
+    private void saveSubmissions(Map<String, Submission> submissionMap) {
+        LocalDateTime now = LocalDateTime.now();
+        submissionMap.values().forEach(submission -> submission.setSyncedAt(now));
+        submissionRepository.saveAll(submissionMap.values());
+    }
+
+    /**
+     * Serializes submission writes across instances until the surrounding transaction ends.
+     * Transaction-scoped, so it works through the Supabase transaction pooler.
+     */
+    private void lockSync() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext(?))", "submission_sync:" + SYNC_KEY);
+    }
 
-        String statusPrefix = isLate ? "[LATE] " : "";
-        file.setName(statusPrefix + "[" + docType + "] " + section + " - " + teamCode + " | " + studentName);
-        file.setSubmittedAt(timestampStr);
-        file.setMimeType("application/vnd.google-apps.document");
+    // Warm the text cache for what was just synced; files already cached cost one batched metadata lookup
+    private void prefetch(Map<String, Submission> submissionMap) {
+        prefetcher.enqueue(submissionMap.values().stream().map(Submission::getFileId).toList());
+    }
 
-        // Key is fileId + docType so that the same Drive file submitted under
-        // different document types (e.g. a student reusing one link) are kept
-        // as separate entries, while true duplicates (same file, same type,
-        // multiple rows) are collapsed to the latest submission.
-        submissionMap.put(fileId + "_" + docType, file);
+    private void saveState(SyncState state, Integer lastRowIndex, String lastRowTimestamp, String signature, int fetchedRows, boolean full) {
+        state.setLastRowIndex(lastRowIndex);
+        state.setLastRowTimestamp(lastRowTimestamp);
+        state.setConfigSignature(signature);
+        state.setLastSyncedAt(LocalDateTime.now());
+        state.setLastFetchedRows(fetchedRows);
+        state.setLastSyncFull(full);
+        syncStateRepository.save(state);
     }
 
-    private String extractIdFromUrl(String url) {
-        if (url == null || url.isEmpty()) return null;
-        Pattern pattern = Pattern.compile("(?:/d/|folders/|id=)([a-zA-Z0-9_-]{25,})");
-        Matcher matcher = pattern.matcher(url);
-        return matcher.find() ? matcher.group(1) : null;
+    private int getColumnIndexSafely(String key) {
+        return configService.getInt(key, -1);
     }
-}
\ No newline at end of file
+}
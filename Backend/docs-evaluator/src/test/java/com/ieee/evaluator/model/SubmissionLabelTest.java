@@ -0,0 +1,69 @@
+package com.ieee.evaluator.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionLabelTest {
+
+    @Test
+    void parsesOnTimeLabel() {
+        SubmissionLabel label = SubmissionLabel.parse("[SRS] BSIT-3A - team-7 | Ada Lovelace");
+
+        assertEquals("SRS", label.getDocType());
+        assertEquals("BSIT-3A", label.getSection());
+        assertEquals("TEAM-7", label.getTeamCode());
+        assertEquals("Ada Lovelace", label.getStudentName());
+        assertFalse(label.isLate());
+    }
+
+    @Test
+    void parsesLateLabel() {
+        SubmissionLabel label = SubmissionLabel.parse("[LATE] [sdd] BSIT-3B - T2 | Grace Hopper");
+
+        assertTrue(label.isLate());
+        assertEquals("SDD", label.getDocType());
+        assertEquals("T2", label.getTeamCode());
+    }
+
+    @Test
+    void studentNameIsOptional() {
+        SubmissionLabel label = SubmissionLabel.parse("[STD] BSIT-3C - T9");
+
+        assertEquals("T9", label.getTeamCode());
+        assertEquals("", label.getStudentName());
+    }
+
+    @Test
+    void sectionMayContainHyphens() {
+        SubmissionLabel label = SubmissionLabel.parse("[SPMP] BS-CS-4A - T3 | Alan Turing");
+
+        assertEquals("BS-CS-4A", label.getSection());
+        assertEquals("T3", label.getTeamCode());
+    }
+
+    @Test
+    void otherNamesAreNotLabels() {
+        assertNull(SubmissionLabel.parse(null));
+        assertNull(SubmissionLabel.parse("Final SRS v2.docx"));
+        assertNull(SubmissionLabel.parse("[SRS] no team separator"));
+    }
+
+    @Test
+    void normalizesTeamCodes() {
+        assertEquals("T1", SubmissionLabel.normalizeTeamCode("  t1 "));
+        assertNull(SubmissionLabel.normalizeTeamCode(null));
+    }
+
+    @Test
+    void normalizesSectionsLikeTheDashboard() {
+        assertEquals("G01", SubmissionLabel.normalizeSection(" go1 "));
+        assertEquals("G01", SubmissionLabel.normalizeSection("G1"));
+        assertEquals("G01", SubmissionLabel.normalizeSection("G01"));
+        assertEquals("BSIT-3A", SubmissionLabel.normalizeSection("bsit-3a"));
+        assertNull(SubmissionLabel.normalizeSection(null));
+    }
+}
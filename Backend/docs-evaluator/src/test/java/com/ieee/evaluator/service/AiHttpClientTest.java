@@ -0,0 +1,154 @@
+package com.ieee.evaluator.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiHttpClientTest {
+
+    private static final long TOTAL_TIMEOUT_MS = 500;
+
+    private HttpServer server;
+    private AiHttpClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "evaluator.ai.test.headers-timeout-ms", "5000",
+                "evaluator.ai.test.total-timeout-ms", String.valueOf(TOTAL_TIMEOUT_MS),
+                "evaluator.ai.test.max-retries", "0")));
+        client = new AiHttpClient(HttpClient.newHttpClient(), environment,
+                new EvaluatorMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void respond(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    /**
+     * Sends the headers and the first bytes of the body, then stalls.
+     */
+    private static void stall(HttpExchange exchange) throws java.io.IOException {
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        body.write("data: {\"x\":1}\n".getBytes(StandardCharsets.UTF_8));
+        body.flush();
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    @Test
+    void returnsBodyOfSuccessfulResponse() throws Exception {
+        respond("/ok", exchange -> {
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+
+        assertEquals("{\"ok\":true}", client.postJson("test", baseUrl + "/ok", Map.of(), "{}"));
+    }
+
+    @Test
+    void decodesGzippedBody() throws Exception {
+        respond("/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write("{\"zipped\":true}".getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            exchange.getResponseBody().write(compressed.toByteArray());
+            exchange.close();
+        });
+
+        assertEquals("{\"zipped\":true}", client.postJson("test", baseUrl + "/gzip", Map.of(), "{}"));
+    }
+
+    @Test
+    void errorStatusThrowsAiHttpException() {
+        respond("/bad", exchange -> {
+            byte[] body = "nope".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(400, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+
+        AiHttpException e = assertThrows(AiHttpException.class, () -> client.postJson("test", baseUrl + "/bad", Map.of(), "{}"));
+        assertEquals(400, e.getStatusCode());
+    }
+
+    @Test
+    void trickledBodyIsCutOffAtTotalTimeout() {
+        respond("/slow-body", AiHttpClientTest::stall);
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class, () -> client.postJson("test", baseUrl + "/slow-body", Map.of(), "{}"));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 3_000, "postJson waited for the stalled body");
+    }
+
+    @Test
+    void stalledStreamIsCutOffAtTotalTimeout() {
+        respond("/slow-stream", AiHttpClientTest::stall);
+        List<String> lines = new ArrayList<>();
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class,
+                () -> client.postJsonStream("test", baseUrl + "/slow-stream", Map.of(), "{}", lines::add));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 3_000, "postJsonStream waited for the stalled stream");
+        assertEquals(List.of("data: {\"x\":1}"), lines);
+    }
+
+    @Test
+    void completeStreamDeliversEveryLine() throws Exception {
+        respond("/stream", exchange -> {
+            byte[] body = "data: one\n\ndata: two\n".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        List<String> lines = new ArrayList<>();
+
+        client.postJsonStream("test", baseUrl + "/stream", Map.of(), "{}", lines::add);
+        assertEquals(List.of("data: one", "", "data: two"), lines);
+    }
+}
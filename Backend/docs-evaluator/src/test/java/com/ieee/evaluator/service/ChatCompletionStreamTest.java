@@ -0,0 +1,71 @@
+package com.ieee.evaluator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatCompletionStreamTest {
+
+    private final List<String> tokens = new ArrayList<>();
+    private final ChatCompletionStream stream = new ChatCompletionStream(new ObjectMapper(), tokens::add);
+
+    private static String delta(String content) {
+        return "data: {\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + content + "\"}}]}";
+    }
+
+    @Test
+    void collectsDeltaContentInOrder() {
+        stream.accept("data: {\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\"}}]}");
+        stream.accept(delta("Hello"));
+        stream.accept("");
+        stream.accept(delta(", world"));
+
+        assertEquals(List.of("Hello", ", world"), tokens);
+        assertEquals("Hello, world", stream.getText());
+    }
+
+    @Test
+    void ignoresCommentsBlankLinesAndOtherFields() {
+        stream.accept(": keep-alive");
+        stream.accept("");
+        stream.accept("event: message");
+        stream.accept("data: {\"choices\":[]}");
+        stream.accept("data: {\"choices\":[{\"delta\":{\"content\":null},\"finish_reason\":\"stop\"}]}");
+        stream.accept("data:" + delta("tight").substring("data: ".length()));
+
+        assertEquals(List.of("tight"), tokens);
+    }
+
+    @Test
+    void linesAfterDoneAreIgnored() {
+        stream.accept(delta("final"));
+        stream.accept("data: [DONE]");
+        stream.accept(delta("ignored"));
+        stream.accept("data: not json");
+
+        assertEquals("final", stream.getText());
+    }
+
+    @Test
+    void errorChunkFailsTheStream() {
+        stream.accept(delta("partial"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> stream.accept("data: {\"error\":{\"message\":\"rate limited\"}}"));
+        assertTrue(e.getMessage().contains("rate limited"), e.getMessage());
+        assertEquals(List.of("partial"), tokens);
+    }
+
+    @Test
+    void unreadableChunkFailsTheStream() {
+        assertThrows(UncheckedIOException.class, () -> stream.accept("data: {\"choices\":["));
+        assertTrue(tokens.isEmpty());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ieee.evaluator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedEvaluationPipelineTest {
+
+    private static final int BUDGET = 3_000;
+    private static final String REPORT = "Summary\nStrengths\nWeaknesses\nConclusion";
+
+    /**
+     * Records every prompt and answers with {@code answer}.
+     */
+    private static final class FakeProvider implements AiProvider {
+        private final Function<String, String> answer;
+        private final List<String> prompts = new CopyOnWriteArrayList<>();
+
+        FakeProvider(Function<String, String> answer) {
+            this.answer = answer;
+        }
+
+        @Override
+        public String getProviderName() {
+            return "fake";
+        }
+
+        @Override
+        public String analyze(String text) {
+            return complete(text);
+        }
+
+        @Override
+        public String complete(String prompt) {
+            prompts.add(prompt);
+            return answer.apply(prompt);
+        }
+
+        @Override
+        public int getMaxInputChars() {
+            return BUDGET;
+        }
+    }
+
+    private final ChunkedEvaluationPipeline pipeline = new ChunkedEvaluationPipeline(new SectionChunker(),
+            new EvaluatorMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP), true, 300_000, 4);
+
+    @AfterEach
+    void shutdown() {
+        pipeline.shutdown();
+    }
+
+    // One numbered section per part, each too large to share a chunk with the next
+    private static String document(int sections) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= sections; i++) {
+            text.append(i).append(". Section ").append((char) ('A' + i % 26)).append('\n');
+            text.append("The system shall do a thing. ".repeat(70)).append("\n\n");
+        }
+        return text.toString();
+    }
+
+    private static boolean isMerge(String prompt) {
+        return prompt.startsWith("Evaluate this IEEE 830 SRS using the reviewer notes");
+    }
+
+    @Test
+    void mergePromptStaysWithinTheProviderBudget() throws Exception {
+        FakeProvider provider = new FakeProvider(prompt -> isMerge(prompt) ? REPORT : "- Strength: " + "x".repeat(600));
+
+        assertEquals(REPORT, pipeline.evaluate(provider, document(30)));
+
+        List<String> reducePrompts = provider.prompts.stream().filter(p -> p.contains("SECTION NOTES:")).toList();
+        assertTrue(reducePrompts.size() > 1, "expected condense rounds before the merge");
+        for (String prompt : reducePrompts) {
+            assertTrue(prompt.length() <= BUDGET, "reduce prompt of " + prompt.length() + " chars");
+        }
+        assertEquals(1, provider.prompts.stream().filter(ChunkedEvaluationPipelineTest::isMerge).count());
+    }
+
+    @Test
+    void smallNotesAreMergedInOneRequest() throws Exception {
+        FakeProvider provider = new FakeProvider(prompt -> isMerge(prompt) ? REPORT : "- fine");
+
+        assertEquals(REPORT, pipeline.evaluate(provider, document(4)));
+        assertEquals(0, provider.prompts.stream().filter(p -> p.startsWith("Combine the reviewer notes")).count());
+    }
+
+    @Test
+    void failedSectionCancelsTheOthers() {
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch interrupted = new CountDownLatch(3);
+        FakeProvider provider = new FakeProvider(prompt -> {
+            if (prompt.startsWith("You are reviewing part 1 of")) {
+                try {
+                    started.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("provider down");
+            }
+            started.countDown();
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "- late";
+        });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pipeline.evaluate(provider, document(8)));
+        assertEquals("provider down", e.getMessage());
+        assertTrue(awaitQuietly(interrupted), "section calls kept running after the failure");
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationHistoryFacet;
+import com.ieee.evaluator.model.EvaluationHistorySummary;
+import com.ieee.evaluator.repository.EvaluationHistoryRepository;
+import com.ieee.evaluator.service.EvaluationHistoryQueryService.HistoryFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EvaluationHistoryQueryServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 21, 12, 0);
+    private static final HistoryFilter ALL = new HistoryFilter(null, null, null, null, null);
+
+    private record Row(long id, LocalDateTime evaluatedAt, String fileName, boolean sent,
+                       String section, String teamCode, String docType) implements EvaluationHistorySummary {
+
+        Row(long id, LocalDateTime evaluatedAt) {
+            this(id, evaluatedAt, "file-" + id, false, "G01", "T1", "SRS");
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getFileId() {
+            return "id-" + id;
+        }
+
+        @Override
+        public String getFileName() {
+            return fileName;
+        }
+
+        @Override
+        public String getModelUsed() {
+            return "openai";
+        }
+
+        @Override
+        public LocalDateTime getEvaluatedAt() {
+            return evaluatedAt;
+        }
+
+        @Override
+        public Boolean getIsSent() {
+            return sent;
+        }
+
+        @Override
+        public Boolean getTextTruncated() {
+            return false;
+        }
+
+        @Override
+        public String getTeamCode() {
+            return teamCode;
+        }
+
+        @Override
+        public String getSection() {
+            return section;
+        }
+
+        @Override
+        public String getDocType() {
+            return docType;
+        }
+    }
+
+    private record Facet(String getSection, String getTeamCode, String getDocType, Boolean getIsSent, Long getTotal)
+            implements EvaluationHistoryFacet {
+    }
+
+    /**
+     * Answers the repository queries from an in-memory list, the way the JPQL would.
+     */
+    @SuppressWarnings("unchecked")
+    private static EvaluationHistoryRepository repository(List<Row> rows) {
+        List<Row> newestFirst = rows.stream()
+                .sorted(Comparator.comparing(Row::getEvaluatedAt).thenComparing(Row::getId).reversed())
+                .toList();
+        return (EvaluationHistoryRepository) Proxy.newProxyInstance(EvaluationHistoryRepository.class.getClassLoader(),
+                new Class<?>[]{EvaluationHistoryRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findSummaryPage" -> page(newestFirst, row -> true,
+                            (String) args[0], (String) args[1], (String) args[2], (Collection<String>) args[3],
+                            (String) args[4], (Limit) args[5]);
+                    case "findSummaryPageAfter" -> {
+                        LocalDateTime at = (LocalDateTime) args[0];
+                        long id = (Long) args[1];
+                        Predicate<Row> after = row -> row.getEvaluatedAt().isBefore(at)
+                                || (row.getEvaluatedAt().equals(at) && row.getId() < id);
+                        yield page(newestFirst, after, (String) args[2], (String) args[3], (String) args[4],
+                                (Collection<String>) args[5], (String) args[6], (Limit) args[7]);
+                    }
+                    case "countFacets" -> rows.stream()
+                            .collect(Collectors.groupingBy(row -> Arrays.asList(row.section, row.teamCode, row.docType, row.sent),
+                                    Collectors.counting()))
+                            .entrySet().stream()
+                            .map(group -> (EvaluationHistoryFacet) new Facet((String) group.getKey().get(0),
+                                    (String) group.getKey().get(1), (String) group.getKey().get(2),
+                                    (Boolean) group.getKey().get(3), group.getValue()))
+                            .toList();
+                    case "findEvaluatedFileIds" -> rows.stream().map(Row::getFileId).distinct().toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<EvaluationHistorySummary> page(List<Row> rows, Predicate<Row> after, String status, String docType,
+                                                       String teamCode, Collection<String> sections, String search, Limit limit) {
+        return rows.stream()
+                .filter(after)
+                .filter(row -> status.isEmpty() || (status.equals("sent") == row.sent))
+                .filter(row -> docType.isEmpty() || docType.equals(row.docType))
+                .filter(row -> teamCode.isEmpty() || teamCode.equals(row.teamCode))
+                .filter(row -> sections.contains("") || (row.section != null && sections.contains(row.section.trim().toUpperCase())))
+                .filter(row -> search.isEmpty() || like(row.fileName.toLowerCase(), search))
+                .limit(limit.max())
+                .map(row -> (EvaluationHistorySummary) row)
+                .toList();
+    }
+
+    // LIKE with '!' as the escape character
+    private static boolean like(String value, String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '!') {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return value.matches(regex.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(Map<String, Object> page) {
+        return ((List<EvaluationHistorySummary>) page.get("items")).stream().map(EvaluationHistorySummary::getId).toList();
+    }
+
+    @Test
+    void cursorRoundTripsTimestampAndId() {
+        LocalDateTime evaluatedAt = LocalDateTime.of(2026, 3, 21, 23, 59, 58, 123_456_789);
+        String cursor = EvaluationHistoryQueryService.encodeCursor(evaluatedAt, 42);
+
+        EvaluationHistoryQueryService.CursorPosition position = EvaluationHistoryQueryService.decodeCursor(cursor);
+        assertEquals(evaluatedAt, position.evaluatedAt());
+        assertEquals(42L, position.id());
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        String cursor = EvaluationHistoryQueryService.encodeCursor(NOON, Long.MAX_VALUE);
+
+        assertEquals(cursor, cursor.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EvaluationHistoryQueryService.decodeCursor("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> EvaluationHistoryQueryService.decodeCursor("bm8tc2VwYXJhdG9y"));
+    }
+
+    @Test
+    void pagesVisitEveryRowOnceAcrossEqualTimestamps() {
+        List<Row> rows = new ArrayList<>();
+        for (long id = 1; id <= 23; id++) {
+            // Groups of three rows share a timestamp, so the id tie-break matters
+            rows.add(new Row(id, NOON.minusMinutes(id / 3)));
+        }
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(repository(rows));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Map<String, Object> page = service.getPage(cursor, 5, ALL);
+            seen.addAll(ids(page));
+            cursor = (String) page.get("nextCursor");
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, pages);
+        assertEquals(List.of(2L, 1L, 5L, 4L, 3L, 8L, 7L, 6L, 11L, 10L, 9L, 14L, 13L, 12L, 17L, 16L, 15L,
+                20L, 19L, 18L, 23L, 22L, 21L), seen);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(
+                repository(List.of(new Row(1, NOON), new Row(2, NOON))));
+
+        Map<String, Object> page = service.getPage(null, 2, ALL);
+        assertEquals(2, ((List<?>) page.get("items")).size());
+        assertNull(page.get("nextCursor"));
+    }
+
+    @Test
+    void filtersApplyAcrossPages() {
+        List<Row> rows = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            // Every third row is a sent SDD; the rest are pending SRS reports
+            boolean sdd = id % 3 == 0;
+            rows.add(new Row(id, NOON.minusMinutes(id), "[" + (sdd ? "SDD" : "SRS") + "] G01 - T1 | Student " + id,
+                    sdd, "G01", "T1", sdd ? "SDD" : "SRS"));
+        }
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(repository(rows));
+        HistoryFilter sentSdd = new HistoryFilter("Sent", "sdd", null, null, null);
+
+        Map<String, Object> first = service.getPage(null, 4, sentSdd);
+        Map<String, Object> second = service.getPage((String) first.get("nextCursor"), 4, sentSdd);
+        Map<String, Object> third = service.getPage((String) second.get("nextCursor"), 4, sentSdd);
+
+        assertEquals(List.of(3L, 6L, 9L, 12L), ids(first));
+        assertEquals(List.of(15L, 18L, 21L, 24L), ids(second));
+        assertEquals(List.of(27L, 30L), ids(third));
+        assertNull(third.get("nextCursor"));
+    }
+
+    @Test
+    void sectionFilterMatchesEverySpellingOfTheSection() {
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(repository(List.of(
+                new Row(1, NOON, "a", false, "G01", "T1", "SRS"),
+                new Row(2, NOON, "b", false, "go1", "T1", "SRS"),
+                new Row(3, NOON, "c", false, " G1 ", "T1", "SRS"),
+                new Row(4, NOON, "d", false, "G02", "T1", "SRS"),
+                new Row(5, NOON, "e", false, null, "T1", "SRS"))));
+
+        assertEquals(List.of(3L, 2L, 1L), ids(service.getPage(null, 10, new HistoryFilter(null, null, "GO1", null, null))));
+        assertEquals(List.of(4L), ids(service.getPage(null, 10, new HistoryFilter(null, null, "g02", null, null))));
+    }
+
+    @Test
+    void teamCodeAndSearchFilters() {
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(repository(List.of(
+                new Row(1, NOON, "[SRS] G01 - TEAM-7 | Ada", false, "G01", "TEAM-7", "SRS"),
+                new Row(2, NOON, "[SRS] G01 - TEAM-8 | Grace", false, "G01", "TEAM-8", "SRS"),
+                new Row(3, NOON, "[SRS] G01 - TEAM-8 | 100%_done", false, "G01", "TEAM-8", "SRS"))));
+
+        assertEquals(List.of(1L), ids(service.getPage(null, 10, new HistoryFilter(null, null, null, " team-7 ", null))));
+        assertEquals(List.of(2L), ids(service.getPage(null, 10, new HistoryFilter(null, null, null, null, "GRACE"))));
+        // Wildcard characters in the search are matched literally
+        assertEquals(List.of(3L), ids(service.getPage(null, 10, new HistoryFilter(null, null, null, null, "100%_"))));
+        assertEquals(List.of(), ids(service.getPage(null, 10, new HistoryFilter(null, null, null, null, "_a"))));
+    }
+
+    @Test
+    void unknownStatusIsRejected() {
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(repository(List.of()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getPage(null, 10, new HistoryFilter("archived", null, null, null, null)));
+    }
+
+    @Test
+    void facetsCoverTheWholeHistory() {
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(repository(List.of(
+                new Row(1, NOON, "a", true, "GO1", "T2", "SRS"),
+                new Row(2, NOON, "b", false, "G01", "T1", "SDD"),
+                new Row(3, NOON, "c", false, "G02", "T1", "SRS"),
+                new Row(4, NOON, "d", false, null, null, null))));
+
+        Map<String, Object> facets = service.getFacets();
+
+        assertEquals(4L, facets.get("total"));
+        assertEquals(1L, facets.get("sent"));
+        assertEquals(3L, facets.get("pending"));
+        assertEquals(List.of("G01", "G02"), facets.get("sections"));
+        assertEquals(List.of("T1", "T2"), facets.get("teamCodes"));
+        assertEquals(List.of("SDD", "SRS"), facets.get("docTypes"));
+    }
+
+    @Test
+    void evaluatedFileIdsComeFromTheRepository() {
+        EvaluationHistoryQueryService service = new EvaluationHistoryQueryService(
+                repository(List.of(new Row(1, NOON), new Row(2, NOON.minusDays(400)))));
+
+        assertEquals(List.of("id-1", "id-2"), service.getEvaluatedFileIds());
+    }
+}
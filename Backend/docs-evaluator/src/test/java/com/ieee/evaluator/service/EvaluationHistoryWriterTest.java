@@ -0,0 +1,129 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationHistory;
+import com.ieee.evaluator.repository.EvaluationHistoryRepository;
+import com.ieee.evaluator.repository.SubmissionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluationHistoryWriterTest {
+
+    private static final String FILE_ID = "file-1";
+
+    private EvaluationHistory stored;
+    private int saves;
+
+    private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    // The advisory lock is the only JDBC call the writer makes
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+        @Override
+        public List<Map<String, Object>> queryForList(String sql, Object... args) {
+            return List.of();
+        }
+    };
+
+    private final EvaluationHistoryWriter writer = new EvaluationHistoryWriter(historyRepository(), submissionRepository(),
+            new TransactionTemplate(transactionManager), jdbcTemplate,
+            new EvaluatorMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+
+    private EvaluationHistoryRepository historyRepository() {
+        return (EvaluationHistoryRepository) Proxy.newProxyInstance(EvaluationHistoryRepository.class.getClassLoader(),
+                new Class<?>[]{EvaluationHistoryRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findTopByFileIdOrderByEvaluatedAtDesc" -> Optional.ofNullable(stored);
+                    case "saveAndFlush" -> {
+                        stored = (EvaluationHistory) args[0];
+                        if (stored.getId() == null) {
+                            stored.setId(1L);
+                        }
+                        saves++;
+                        yield stored;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static SubmissionRepository submissionRepository() {
+        return (SubmissionRepository) Proxy.newProxyInstance(SubmissionRepository.class.getClassLoader(),
+                new Class<?>[]{SubmissionRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findFirstByFileIdOrderByRowIndexDesc" -> Optional.empty();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private void reviewedReport(String result) {
+        writer.save(FILE_ID, "srs.docx", "openai", false, result, false);
+        stored.setTeacherFeedback("Good scope section");
+        stored.setIsSent(true);
+    }
+
+    @Test
+    void cachedReportCreatesTheFirstRow() {
+        writer.save(FILE_ID, "srs.docx", "openai", false, "Summary: cached", true);
+
+        assertEquals("Summary: cached", stored.getEvaluationResult());
+        assertEquals(1, saves);
+    }
+
+    @Test
+    void cachedReportNeverReplacesANewerReport() {
+        reviewedReport("Summary: newer");
+        writer.save(FILE_ID, "srs.docx", "openai", false, "Summary: stale", true);
+
+        assertEquals("Summary: newer", stored.getEvaluationResult());
+        assertEquals("Good scope section", stored.getTeacherFeedback());
+        assertTrue(stored.getIsSent());
+        assertEquals(1, saves);
+    }
+
+    @Test
+    void cachedReportKeepsTheTeachersWorkOnAMatchingRow() {
+        reviewedReport("Summary: same");
+        writer.save(FILE_ID, "srs.docx", "gemini", false, "Summary: same", true);
+
+        assertEquals("openai", stored.getModelUsed());
+        assertEquals("Good scope section", stored.getTeacherFeedback());
+        assertTrue(stored.getIsSent());
+    }
+
+    @Test
+    void freshEvaluationReplacesTheRow() {
+        reviewedReport("Summary: old");
+        writer.save(FILE_ID, "srs.docx", "openai", true, "Summary: new", false);
+
+        assertEquals("Summary: new", stored.getEvaluationResult());
+        assertNull(stored.getTeacherFeedback());
+        assertFalse(stored.getIsSent());
+        assertTrue(stored.getTextTruncated());
+    }
+}
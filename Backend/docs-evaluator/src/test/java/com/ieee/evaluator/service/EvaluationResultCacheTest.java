@@ -0,0 +1,104 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.EvaluationResultCacheEntry;
+import com.ieee.evaluator.repository.EvaluationResultCacheRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluationResultCacheTest {
+
+    private static final String TEXT = "1. Introduction\nThe system shall evaluate documents.";
+
+    private final Map<String, EvaluationResultCacheEntry> rows = new HashMap<>();
+    private final AiProvider provider = new AiProvider() {
+        @Override
+        public String getProviderName() {
+            return "fake";
+        }
+
+        @Override
+        public String analyze(String text) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String complete(String prompt) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private EvaluationResultCacheRepository repository() {
+        return (EvaluationResultCacheRepository) Proxy.newProxyInstance(EvaluationResultCacheRepository.class.getClassLoader(),
+                new Class<?>[]{EvaluationResultCacheRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(rows.get((String) args[0]));
+                    case "save" -> {
+                        EvaluationResultCacheEntry entry = (EvaluationResultCacheEntry) args[0];
+                        rows.put(entry.getCacheKey(), entry);
+                        yield entry;
+                    }
+                    case "recordHit" -> 1;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private EvaluationResultCache cache() {
+        return new EvaluationResultCache(repository(), true, 10);
+    }
+
+    private Optional<String> report(EvaluationResultCache cache) {
+        return cache.get(provider, TEXT).map(EvaluationResultCache.CachedResult::result);
+    }
+
+    @Test
+    void storedReportIsServedForTheSameText() {
+        EvaluationResultCache cache = cache();
+        cache.put(provider, TEXT, "Summary: fine", "fake", false);
+
+        assertEquals(Optional.of("Summary: fine"), report(cache));
+        assertTrue(cache.get(provider, TEXT + " edited").isEmpty());
+    }
+
+    @Test
+    void normalRunKeepsTheExistingEntry() {
+        EvaluationResultCache cache = cache();
+        cache.put(provider, TEXT, "Summary: first", "fake", false);
+        cache.put(provider, TEXT, "Summary: second", "fake", false);
+
+        assertEquals(Optional.of("Summary: first"), report(cache));
+    }
+
+    @Test
+    void forcedRunReplacesTheStoredReport() {
+        EvaluationResultCache cache = cache();
+        cache.put(provider, TEXT, "Summary: stale", "fake", false);
+        cache.put(provider, TEXT, "Summary: fresh", "fake", true);
+
+        assertEquals(Optional.of("Summary: fresh"), report(cache));
+        // A new instance has an empty memory tier, so this read comes from the repository
+        assertEquals(Optional.of("Summary: fresh"), report(cache()));
+        assertEquals(1, rows.size());
+    }
+
+    @Test
+    void hitReportsTheProviderThatWroteTheReport() {
+        cache().put(provider, TEXT, "Summary: fine", "openai", false);
+
+        assertEquals(new EvaluationResultCache.CachedResult("Summary: fine", "openai"),
+                cache().get(provider, TEXT).orElseThrow());
+    }
+
+    @Test
+    void errorResultsAreNeverStored() {
+        EvaluationResultCache cache = cache();
+        cache.put(provider, TEXT, "ERROR: Request timed out", "fake", true);
+
+        assertTrue(rows.isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.ExtractedText;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtractedTextCacheTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("text-cache-test");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private ExtractedTextCache cache(long maxMemoryChars, long maxDiskBytes) {
+        return new ExtractedTextCache(maxMemoryChars, maxDiskBytes, directory.toString());
+    }
+
+    private long bytesOnDisk() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    @Test
+    void completeEntryServesAnyBudget() {
+        ExtractedTextCache cache = cache(1_000, 0);
+        cache.put("doc", new ExtractedText("0123456789", false));
+
+        assertEquals(new ExtractedText("0123456789", false), cache.get("doc", -1).orElseThrow());
+        assertEquals(new ExtractedText("0123", true), cache.get("doc", 4).orElseThrow());
+        assertEquals(new ExtractedText("0123456789", false), cache.get("doc", 50).orElseThrow());
+    }
+
+    @Test
+    void truncatedEntryServesOnlyBudgetsItCovers() {
+        ExtractedTextCache cache = cache(1_000, 0);
+        cache.put("doc", new ExtractedText("0123456789", true));
+
+        assertEquals(new ExtractedText("0123456789", true), cache.get("doc", 10).orElseThrow());
+        assertEquals(new ExtractedText("01234", true), cache.get("doc", 5).orElseThrow());
+        assertTrue(cache.get("doc", 11).isEmpty());
+        assertTrue(cache.get("doc", -1).isEmpty());
+    }
+
+    @Test
+    void shorterTruncatedExtractionDoesNotReplaceALongerOne() {
+        ExtractedTextCache cache = cache(1_000, 0);
+        cache.put("doc", new ExtractedText("0123456789", true));
+        cache.put("doc", new ExtractedText("01234", true));
+
+        assertEquals(new ExtractedText("0123456789", true), cache.get("doc", 10).orElseThrow());
+    }
+
+    @Test
+    void oversizedTextIsServedFromDisk() {
+        ExtractedTextCache cache = cache(5, 1_000_000);
+        cache.put("doc", new ExtractedText("0123456789", true));
+
+        assertEquals(new ExtractedText("012", true), cache.get("doc", 3).orElseThrow());
+        assertTrue(cache.get("doc", -1).isEmpty());
+        assertEquals(1L, cache.getStats().get("diskHits"));
+    }
+
+    @Test
+    void nullKeyIsNeverCached() {
+        ExtractedTextCache cache = cache(1_000, 1_000_000);
+        cache.put(null, new ExtractedText("text", false));
+
+        assertFalse(cache.get(null, -1).isPresent());
+    }
+
+    @Test
+    void replacedAndTrimmedSpillsKeepDiskAccountingExact() throws IOException {
+        // Nothing fits in memory, so every put spills; the small disk quota forces trims as well
+        ExtractedTextCache cache = cache(1, 2_000);
+        cache.put("doc-1", new ExtractedText("x".repeat(500), true));
+        cache.put("doc-1", new ExtractedText("x".repeat(800), false));
+        assertEquals(bytesOnDisk(), cache.getStats().get("diskBytes"));
+
+        cache.put("doc-2", new ExtractedText("y".repeat(900), false));
+        cache.put("doc-3", new ExtractedText("z".repeat(900), false));
+
+        long accounted = (Long) cache.getStats().get("diskBytes");
+        assertEquals(bytesOnDisk(), accounted);
+        assertTrue(accounted <= 2_000, "disk tier over quota: " + accounted);
+        assertEquals(1L, cache.getStats().get("diskEvictions"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.ieee.evaluator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProviderRateLimiterTest {
+
+    private static ProviderRateLimiter limiter(double requestsPerMinute, double tokensPerMinute, int maxConcurrency) {
+        return new ProviderRateLimiter("test", requestsPerMinute, tokensPerMinute, 1, maxConcurrency, 0, 1_000, 0);
+    }
+
+    private static double limitOf(ProviderRateLimiter limiter) {
+        return (Double) limiter.getStats().get("concurrencyLimit");
+    }
+
+    @Test
+    void burstUpToTheBucketIsAdmittedThenQueued() throws Exception {
+        ProviderRateLimiter limiter = limiter(5, 0, 100);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(0, 100).onSuccess();
+        }
+
+        // The sixth request would have to wait 12 s for the bucket to refill
+        assertThrows(HttpTimeoutException.class, () -> limiter.acquire(0, 100));
+    }
+
+    @Test
+    void rateTimeoutRefundsTheReservation() throws Exception {
+        ProviderRateLimiter limiter = limiter(60, 0, 100);
+        for (int i = 0; i < 60; i++) {
+            limiter.acquire(0, 100).onSuccess();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpTimeoutException.class, () -> limiter.acquire(0, 100));
+        }
+        // The next slot is a second away; unrefunded, the three refused callers would push it to four
+        limiter.acquire(0, 2_000).onSuccess();
+    }
+
+    @Test
+    void slotTimeoutRefundsTheReservation() throws Exception {
+        ProviderRateLimiter limiter = limiter(2, 0, 1);
+        ProviderRateLimiter.Permit held = limiter.acquire(0, 100);
+
+        // Rate allows it, but the only slot is taken
+        assertThrows(HttpTimeoutException.class, () -> limiter.acquire(0, 100));
+        held.onSuccess();
+
+        // The second request token was handed back, so this one is admitted immediately
+        limiter.acquire(0, 100).onSuccess();
+    }
+
+    @Test
+    void interruptedWaitRefundsTheReservation() throws Exception {
+        ProviderRateLimiter limiter = limiter(2, 0, 1);
+        limiter.acquire(0, 100).onSuccess();
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> limiter.acquire(0, 100));
+        assertFalse(Thread.currentThread().isInterrupted());
+
+        limiter.acquire(0, 100).onSuccess();
+    }
+
+    @Test
+    void tokenBudgetLimitsLargeRequests() throws Exception {
+        ProviderRateLimiter limiter = limiter(0, 1_000, 100);
+        limiter.acquire(800, 100).onSuccess();
+
+        assertThrows(HttpTimeoutException.class, () -> limiter.acquire(800, 100));
+        // The refused 800 were refunded, so a small request still fits
+        limiter.acquire(200, 100).onSuccess();
+    }
+
+    @Test
+    void throttleHalvesTheLimitAndSuccessGrowsIt() throws Exception {
+        ProviderRateLimiter limiter = limiter(0, 0, 8);
+        assertEquals(8.0, limitOf(limiter), 0.001);
+
+        limiter.acquire(0, 100).onThrottled(0);
+        assertEquals(4.0, limitOf(limiter), 0.001);
+
+        limiter.acquire(0, 100).onSuccess();
+        assertEquals(4.25, limitOf(limiter), 0.001);
+    }
+
+    @Test
+    void failureReleasesTheSlotWithoutChangingTheLimit() throws Exception {
+        ProviderRateLimiter limiter = limiter(0, 0, 1);
+        limiter.acquire(0, 100).onFailure();
+
+        assertEquals(1.0, limitOf(limiter), 0.001);
+        limiter.acquire(0, 100).onSuccess();
+    }
+}
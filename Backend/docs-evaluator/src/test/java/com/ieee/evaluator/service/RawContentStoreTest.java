@@ -0,0 +1,193 @@
+package com.ieee.evaluator.service;
+
+import org.apache.tika.io.TikaInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RawContentStoreTest {
+
+    private Path directory;
+    private RawContentStore store;
+
+    @BeforeEach
+    void createStore() throws IOException {
+        directory = Files.createTempDirectory("raw-content-test");
+        store = new RawContentStore(true, 10_000_000, directory.toString(), 1_000_000);
+    }
+
+    @AfterEach
+    void deleteStore() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private static byte[] download(int size) {
+        byte[] bytes = new byte[size];
+        new Random(7).nextBytes(bytes);
+        return bytes;
+    }
+
+    private long filesIn() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private long bytesOnDisk() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    @Test
+    void fullyReadDownloadIsKept() throws IOException {
+        byte[] bytes = download(200_000);
+
+        try (InputStream in = store.tee("file-1|rev-1", new ByteArrayInputStream(bytes))) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        }
+
+        Optional<Path> stored = store.find("file-1|rev-1");
+        assertTrue(stored.isPresent());
+        try (InputStream in = store.open(stored.get())) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void downloadAbandonedEarlyIsFinishedAndKept() throws IOException {
+        byte[] bytes = download(200_000);
+
+        try (InputStream in = store.tee("file-1|rev-1", new ByteArrayInputStream(bytes))) {
+            in.readNBytes(1_000);
+        }
+
+        try (InputStream in = store.open(store.find("file-1|rev-1").orElseThrow())) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void downloadAbandonedEarlyOverTheFileLimitIsNotKept() throws IOException {
+        byte[] bytes = download(1_500_000);
+
+        try (InputStream in = store.tee("file-1|rev-1", new ByteArrayInputStream(bytes))) {
+            in.readNBytes(1_000);
+        }
+
+        assertTrue(store.find("file-1|rev-1").isEmpty());
+        assertEquals(0, filesIn(), "the partial copy was left on disk");
+    }
+
+    @Test
+    void downloadThatFailsWhileFinishingIsNotKept() throws IOException {
+        InputStream failing = new InputStream() {
+            private int remaining = 20_000;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining-- == 0) {
+                    throw new IOException("connection reset");
+                }
+                return 'x';
+            }
+        };
+
+        try (InputStream in = store.tee("file-1|rev-1", failing)) {
+            in.readNBytes(1_000);
+        }
+
+        assertTrue(store.find("file-1|rev-1").isEmpty());
+        assertEquals(0, filesIn(), "the partial copy was left on disk");
+    }
+
+    @Test
+    void skippedBytesAreStillCopied() throws IOException {
+        byte[] bytes = download(50_000);
+
+        try (InputStream in = store.tee("file-1|rev-1", new ByteArrayInputStream(bytes))) {
+            in.skip(10_000);
+            in.readAllBytes();
+        }
+
+        try (InputStream in = store.open(store.find("file-1|rev-1").orElseThrow())) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void identicalDownloadsShareOneContentFile() throws IOException {
+        byte[] bytes = download(10_000);
+
+        for (String revision : new String[]{"file-1|rev-1", "file-2|rev-1"}) {
+            try (InputStream in = store.tee(revision, new ByteArrayInputStream(bytes))) {
+                in.readAllBytes();
+            }
+        }
+
+        assertEquals(store.find("file-1|rev-1"), store.find("file-2|rev-1"));
+        // One .bin plus a .ref per revision
+        assertEquals(3, filesIn());
+    }
+
+    @Test
+    void quotaCountsContentAndRefs() throws IOException {
+        byte[] bytes = download(10_000);
+
+        for (String revision : new String[]{"file-1|rev-1", "file-2|rev-1", "file-1|rev-1"}) {
+            try (InputStream in = store.tee(revision, new ByteArrayInputStream(bytes))) {
+                in.readAllBytes();
+            }
+        }
+
+        assertEquals(bytesOnDisk(), store.getStats().get("storedBytes"));
+        assertEquals(bytesOnDisk(), new RawContentStore(true, 10_000_000, directory.toString(), 1_000_000)
+                .getStats().get("storedBytes"));
+    }
+
+    @Test
+    void evictedContentTakesItsRefsWithIt() throws IOException {
+        store = new RawContentStore(true, 25_000, directory.toString(), 1_000_000);
+
+        for (int i = 1; i <= 3; i++) {
+            byte[] bytes = download(10_000);
+            bytes[0] = (byte) i;
+            try (InputStream in = store.tee("file-" + i + "|rev-1", new ByteArrayInputStream(bytes))) {
+                in.readAllBytes();
+            }
+        }
+
+        assertTrue(store.find("file-3|rev-1").isPresent());
+        // Two content files and their refs fit the quota; the evicted file's ref is gone too
+        assertEquals(4, filesIn());
+        assertEquals(bytesOnDisk(), store.getStats().get("storedBytes"));
+    }
+
+    @Test
+    void storedContentOpensAsAFileBackedTikaStream() throws IOException {
+        try (InputStream in = store.tee("file-1|rev-1", new ByteArrayInputStream(download(1_000)))) {
+            in.readAllBytes();
+        }
+
+        try (InputStream in = store.open(store.find("file-1|rev-1").orElseThrow())) {
+            assertTrue(assertInstanceOf(TikaInputStream.class, in).hasFile());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ieee.evaluator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingAiProviderTest {
+
+    private static final String REPORT = "Summary\n- fine\nStrengths\nWeaknesses\nConclusion";
+
+    /**
+     * Answers every prompt with {@code answer} and counts the calls.
+     */
+    private static final class FakeProvider implements AiProvider {
+        private final String name;
+        private final Callable<String> answer;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FakeProvider(String name, Callable<String> answer) {
+            this.name = name;
+            this.answer = answer;
+        }
+
+        @Override
+        public String getProviderName() {
+            return name;
+        }
+
+        @Override
+        public String analyze(String text) throws Exception {
+            return complete(text);
+        }
+
+        @Override
+        public String complete(String prompt) throws Exception {
+            calls.incrementAndGet();
+            return answer.call();
+        }
+    }
+
+    private RoutingAiProvider router;
+
+    @AfterEach
+    void shutdown() {
+        if (router != null) {
+            router.shutdown();
+        }
+    }
+
+    private RoutingAiProvider route(boolean hedging, int failureThreshold, AiProvider... providers) {
+        router = new RoutingAiProvider(List.of(providers), hedging, 100, 50, failureThreshold, 60_000);
+        return router;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String circuit(RoutingAiProvider router, String provider) {
+        return (String) ((Map<String, Object>) router.getStats().get(provider)).get("circuit");
+    }
+
+    @Test
+    void rejectionIsAnAnswerNotAFailure() throws Exception {
+        String rejection = "ERROR: Invalid Software Engineering document.";
+        FakeProvider first = new FakeProvider("first", () -> rejection);
+        FakeProvider second = new FakeProvider("second", () -> REPORT);
+        RoutingAiProvider router = route(false, 1, first, second);
+
+        assertEquals(rejection, router.complete("prompt"));
+        assertEquals(0, second.calls.get());
+        assertEquals("CLOSED", circuit(router, "first"));
+    }
+
+    @Test
+    void failedCallFailsOverToNextProvider() throws Exception {
+        FakeProvider first = new FakeProvider("first", () -> "SYSTEM ERROR: upstream unavailable");
+        FakeProvider second = new FakeProvider("second", () -> REPORT);
+        RoutingAiProvider router = route(false, 3, first, second);
+
+        assertEquals(REPORT, router.complete("prompt"));
+        assertEquals(1, first.calls.get());
+        assertEquals(1, second.calls.get());
+    }
+
+    @Test
+    void thrownExceptionFailsOverToNextProvider() throws Exception {
+        FakeProvider first = new FakeProvider("first", () -> {
+            throw new IllegalStateException("boom");
+        });
+        FakeProvider second = new FakeProvider("second", () -> REPORT);
+
+        assertEquals(REPORT, route(false, 3, first, second).complete("prompt"));
+    }
+
+    @Test
+    void breakerOpensAfterThresholdAndSkipsProvider() throws Exception {
+        FakeProvider first = new FakeProvider("first", () -> "Failed to parse response");
+        FakeProvider second = new FakeProvider("second", () -> REPORT);
+        RoutingAiProvider router = route(false, 2, first, second);
+
+        router.complete("one");
+        router.complete("two");
+        assertEquals("OPEN", circuit(router, "first"));
+
+        router.complete("three");
+        assertEquals(2, first.calls.get());
+        assertEquals(3, second.calls.get());
+    }
+
+    @Test
+    void allCircuitsOpenFailsFast() throws Exception {
+        FakeProvider only = new FakeProvider("only", () -> "SYSTEM ERROR");
+        RoutingAiProvider router = route(false, 1, only);
+
+        assertThrows(IllegalStateException.class, () -> router.complete("one"));
+        IllegalStateException fastFailure = assertThrows(IllegalStateException.class, () -> router.complete("two"));
+        assertEquals("All AI providers are temporarily unavailable; try again shortly.", fastFailure.getMessage());
+        assertEquals(1, only.calls.get());
+    }
+
+    @Test
+    void slowProviderIsHedgedByTheNextOne() throws Exception {
+        FakeProvider slow = new FakeProvider("slow", () -> {
+            Thread.sleep(5_000);
+            return "late";
+        });
+        FakeProvider fast = new FakeProvider("fast", () -> REPORT);
+        RoutingAiProvider router = route(true, 3, slow, fast);
+
+        long start = System.nanoTime();
+        assertEquals(REPORT, router.complete("prompt"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs < 2_000, "hedged answer took " + elapsedMs + " ms");
+        // The loser was cancelled, not counted as a failure
+        assertEquals("CLOSED", circuit(router, "slow"));
+    }
+
+    @Test
+    void streamingReturnsRejectionWithoutFailover() throws Exception {
+        String rejection = "ERROR: Unreadable section.";
+        FakeProvider first = new FakeProvider("first", () -> rejection);
+        FakeProvider second = new FakeProvider("second", () -> REPORT);
+        StringBuilder streamed = new StringBuilder();
+
+        assertEquals(rejection, route(false, 1, first, second).completeStreaming("prompt", streamed::append));
+        assertEquals(rejection, streamed.toString());
+        assertEquals(0, second.calls.get());
+    }
+
+    @Test
+    void sessionRecordsWhichProviderAnswered() throws Exception {
+        FakeProvider first = new FakeProvider("first", () -> "SYSTEM ERROR: upstream unavailable");
+        FakeProvider second = new FakeProvider("second", () -> REPORT);
+        RoutingAiProvider.Session session = route(false, 3, first, second).session();
+
+        assertEquals("auto", session.getAnsweredBy());
+        assertEquals(REPORT, session.complete("prompt"));
+        assertEquals("second", session.getAnsweredBy());
+    }
+
+    @Test
+    void sessionJoinsProvidersThatAnsweredDifferentCalls() throws Exception {
+        AtomicInteger firstCalls = new AtomicInteger();
+        FakeProvider first = new FakeProvider("first",
+                () -> firstCalls.incrementAndGet() == 1 ? "SYSTEM ERROR: upstream unavailable" : REPORT);
+        FakeProvider second = new FakeProvider("second", () -> REPORT);
+        RoutingAiProvider router = route(false, 3, first, second);
+        RoutingAiProvider.Session session = router.session();
+
+        session.complete("chunk one");
+        session.completeStreaming("merge", token -> { });
+        router.session().complete("another evaluation");
+
+        assertEquals("second+first", session.getAnsweredBy());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.DocumentChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionChunkerTest {
+
+    private final SectionChunker chunker = new SectionChunker();
+
+    private static List<String> titles(List<DocumentChunk> chunks) {
+        return chunks.stream().map(DocumentChunk::getTitle).toList();
+    }
+
+    @Test
+    void smallSectionsArePackedIntoOneChunk() {
+        String text = "Course Project\n1. Introduction\nPurpose.\n2. Overall Description\nContext.\n";
+
+        List<DocumentChunk> chunks = chunker.split(text, 1_000);
+
+        assertEquals(List.of("Front Matter / 1. Introduction / 2. Overall Description"), titles(chunks));
+        assertEquals("Course Project\n\n1. Introduction\nPurpose.\n\n2. Overall Description\nContext.\n",
+                chunks.get(0).getText());
+    }
+
+    @Test
+    void sectionsThatDoNotFitTogetherStartNewChunks() {
+        String intro = "1. Introduction\n" + "a".repeat(60) + "\n";
+        String overall = "2. Overall Description\n" + "b".repeat(60) + "\n";
+        String specific = "3. Specific Requirements\n" + "c".repeat(60) + "\n";
+
+        List<DocumentChunk> chunks = chunker.split(intro + overall + specific, 100);
+
+        assertEquals(List.of("1. Introduction", "2. Overall Description", "3. Specific Requirements"), titles(chunks));
+        assertEquals(intro, chunks.get(0).getText());
+    }
+
+    @Test
+    void tableOfContentsAndSubsectionsAreNotHeadings() {
+        String text = "Table of Contents\n1. Introduction ........ 3\n2. Overall Description 5\n"
+                + "1. Introduction\n1.1 Purpose\nWhy.\n1.2 Scope\nWhat.\n";
+
+        List<DocumentChunk> chunks = chunker.split(text, 100);
+
+        assertEquals(List.of("Front Matter", "1. Introduction"), titles(chunks));
+        assertEquals("1. Introduction\n1.1 Purpose\nWhy.\n1.2 Scope\nWhat.\n", chunks.get(1).getText());
+    }
+
+    @Test
+    void numberedRequirementsAreNotHeadings() {
+        String requirements = "3. Specific Requirements\n"
+                + "1. The system shall log users out\n"
+                + "2. Teachers can export every report\n"
+                + "3. The dashboard displays pending evaluations\n"
+                + "4. Students receive an email when feedback arrives\n";
+        String verification = "4. Verification\nChecked by tests.\n";
+        String useCases = "5. Use Cases\nLogin.\n";
+
+        List<DocumentChunk> chunks = chunker.split(requirements + verification + useCases, 200);
+
+        assertEquals(List.of("3. Specific Requirements", "4. Verification / 5. Use Cases"), titles(chunks));
+        assertEquals(requirements, chunks.get(0).getText());
+    }
+
+    @Test
+    void oversizedSectionIsSplitOnParagraphBreaks() {
+        String paragraph = "The system shall do a thing. ".repeat(10);
+        StringBuilder body = new StringBuilder("3. Specific Requirements\n");
+        for (int i = 0; i < 6; i++) {
+            body.append(paragraph).append("\n\n");
+        }
+
+        List<DocumentChunk> chunks = chunker.split(body.toString(), 700);
+
+        assertTrue(chunks.size() > 1);
+        StringBuilder rejoined = new StringBuilder();
+        for (int i = 0; i < chunks.size(); i++) {
+            DocumentChunk chunk = chunks.get(i);
+            assertEquals("3. Specific Requirements (part " + (i + 1) + ")", chunk.getTitle());
+            assertTrue(chunk.getText().length() <= 700, "chunk of " + chunk.getText().length() + " chars");
+            if (i > 0) {
+                assertTrue(chunk.getText().startsWith("\n\n"), "part " + (i + 1) + " did not start at a paragraph");
+            }
+            rejoined.append(chunk.getText());
+        }
+        assertEquals(body.toString(), rejoined.toString());
+    }
+
+    @Test
+    void textWithoutBreaksIsCutAtTheLimit() {
+        List<DocumentChunk> chunks = chunker.split("x".repeat(250), 100);
+
+        assertEquals(List.of(100, 100, 50), chunks.stream().map(chunk -> chunk.getText().length()).toList());
+    }
+
+    @Test
+    void blankTextYieldsNoChunks() {
+        assertTrue(chunker.split("  \n\n ", 100).isEmpty());
+    }
+}
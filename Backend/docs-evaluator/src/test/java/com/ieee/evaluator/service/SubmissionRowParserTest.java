@@ -0,0 +1,113 @@
+package com.ieee.evaluator.service;
+
+import com.ieee.evaluator.model.DeliverableConfig;
+import com.ieee.evaluator.model.Submission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionRowParserTest {
+
+    private static final String SRS_ID = "1AbCdEfGhIjKlMnOpQrStUvWxYz012345";
+    private static final String SDD_ID = "1ZyXwVuTsRqPoNmLkJiHgFeDcBa987654";
+
+    // Columns: timestamp, name, section, team, SRS link, SDD link
+    private final SubmissionRowParser parser = new SubmissionRowParser(0, 1, 2, 3,
+            columns(), Map.of("SRS", new DeliverableConfig("SRS", LocalDateTime.of(2026, 3, 21, 23, 59))));
+
+    private static Map<String, Integer> columns() {
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        columns.put("SRS", 4);
+        columns.put("SDD", 5);
+        return columns;
+    }
+
+    private static List<Object> row(String timestamp, String team, String srsLink, String sddLink) {
+        return List.of(timestamp, " Ada Lovelace ", "BSIT-3A", team, srsLink, sddLink);
+    }
+
+    private Map<String, Submission> parse(List<Object> row) {
+        Map<String, Submission> submissions = new LinkedHashMap<>();
+        parser.parseRow(row, 7, submissions);
+        return submissions;
+    }
+
+    @Test
+    void rowYieldsOneSubmissionPerLinkedDocument() {
+        Map<String, Submission> submissions = parse(row("3/20/2026 10:15:00", "team-7",
+                "https://docs.google.com/document/d/" + SRS_ID + "/edit",
+                "https://drive.google.com/open?id=" + SDD_ID));
+
+        assertEquals(List.of(SRS_ID + "_SRS", SDD_ID + "_SDD"), List.copyOf(submissions.keySet()));
+        Submission srs = submissions.get(SRS_ID + "_SRS");
+        assertEquals("SRS", srs.getDocType());
+        assertEquals("Ada Lovelace", srs.getStudentName());
+        assertEquals(LocalDateTime.of(2026, 3, 20, 10, 15), srs.getSubmittedAt());
+        assertEquals("3/20/2026 10:15:00", srs.getSubmittedAtText());
+        assertEquals(Integer.valueOf(7), srs.getRowIndex());
+        assertFalse(srs.getIsLate());
+        assertEquals("[SRS] BSIT-3A - team-7 |  Ada Lovelace ", srs.getName());
+    }
+
+    @Test
+    void teamCodeIsStoredNormalized() {
+        Submission srs = parse(row("3/20/2026 10:15:00", "  team-7 ",
+                "https://docs.google.com/document/d/" + SRS_ID + "/edit", "")).get(SRS_ID + "_SRS");
+
+        assertEquals("TEAM-7", srs.getTeamCode());
+    }
+
+    @Test
+    void submissionAfterTheDeadlineIsLate() {
+        Submission srs = parse(row("3/22/2026 0:00:01", "T1",
+                "https://docs.google.com/document/d/" + SRS_ID + "/edit", "")).get(SRS_ID + "_SRS");
+
+        assertTrue(srs.getIsLate());
+        assertTrue(srs.getName().startsWith("[LATE] [SRS] "));
+    }
+
+    @Test
+    void unparseableTimestampKeepsTheSubmission() {
+        Submission srs = parse(row("yesterday", "T1",
+                "https://docs.google.com/document/d/" + SRS_ID + "/edit", "")).get(SRS_ID + "_SRS");
+
+        assertNull(srs.getSubmittedAt());
+        assertFalse(srs.getIsLate());
+    }
+
+    @Test
+    void linksWithoutADriveIdAreSkipped() {
+        assertTrue(parse(row("3/20/2026 10:15:00", "T1", "https://example.com/my-srs", "")).isEmpty());
+    }
+
+    @Test
+    void extractsIdFromEachLinkShape() {
+        assertEquals(SRS_ID, SubmissionRowParser.extractIdFromUrl("https://docs.google.com/document/d/" + SRS_ID + "/edit?usp=sharing"));
+        assertEquals(SRS_ID, SubmissionRowParser.extractIdFromUrl("https://drive.google.com/drive/folders/" + SRS_ID));
+        assertEquals(SRS_ID, SubmissionRowParser.extractIdFromUrl("https://drive.google.com/open?id=" + SRS_ID));
+        assertNull(SubmissionRowParser.extractIdFromUrl("https://drive.google.com/d/short"));
+        assertNull(SubmissionRowParser.extractIdFromUrl(""));
+        assertNull(SubmissionRowParser.extractIdFromUrl(null));
+    }
+
+    @Test
+    void resubmittedFileKeepsTheLatestRow() {
+        Map<String, Submission> submissions = new LinkedHashMap<>();
+        String link = "https://docs.google.com/document/d/" + SRS_ID + "/edit";
+        parser.parseRow(row("3/20/2026 10:15:00", "T1", link, ""), 3, submissions);
+        parser.parseRow(row("3/22/2026 8:00:00", "T1", link, ""), 9, submissions);
+
+        Submission srs = submissions.get(SRS_ID + "_SRS");
+        assertEquals(1, submissions.size());
+        assertEquals(Integer.valueOf(9), srs.getRowIndex());
+        assertTrue(srs.getIsLate());
+    }
+}
@@ -30,11 +30,11 @@ export const syncSubmissionsWithBackend = async () => {
 /**
  * AI: Triggers Google Doc text extraction and AI analysis
  */
-export const analyzeDocumentWithAI = async (fileId, fileName, model) => {
+export const analyzeDocumentWithAI = async (fileId, fileName, model, force = false) => {
     const response = await fetch(`${API_BASE_URL}/ai/analyze`, {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
-        body: JSON.stringify({ fileId, fileName, model })
+        body: JSON.stringify({ fileId, fileName, model, force })
     });
     const data = await response.json();
     if (!response.ok) throw new Error(data.error || 'Analysis failed.');
@@ -42,14 +42,75 @@ export const analyzeDocumentWithAI = async (fileId, fileName, model) => {
 };
 
 /**
- * AI: Fetches the evaluation history from Supabase
+ * AI: Same analysis as analyzeDocumentWithAI, streamed over Server-Sent Events.
+ * onToken receives each piece of the report as it is generated; resolves with the full report.
+ * force skips the server's result cache and re-runs the model on an unchanged document.
  */
-export const getEvaluationHistory = async () => {
-    const response = await fetch(`${API_BASE_URL}/ai/history`);
+export const streamDocumentAnalysis = (fileId, fileName, model, onToken, force = false) => {
+    const params = new URLSearchParams({ fileId, fileName, model, force: String(force) });
+    return new Promise((resolve, reject) => {
+        const source = new EventSource(`${API_BASE_URL}/ai/analyze/stream?${params}`);
+        source.addEventListener('token', (event) => onToken(JSON.parse(event.data).text));
+        source.addEventListener('done', (event) => {
+            source.close();
+            resolve(JSON.parse(event.data).analysis);
+        });
+        source.addEventListener('failed', (event) => {
+            source.close();
+            reject(new Error(JSON.parse(event.data).error || 'Analysis failed.'));
+        });
+        // Connection-level failure; close so the browser does not re-run the analysis
+        source.onerror = () => {
+            source.close();
+            reject(new Error('Lost connection to the analysis stream.'));
+        };
+    });
+};
+
+/**
+ * AI: Fetches one page of evaluation history summaries ({ items, nextCursor }).
+ * Pass the previous page's nextCursor to continue; it is null on the last page.
+ * Filters ({ status, docType, section, teamCode, q }) are applied by the server; send the
+ * same filters with every cursor of one listing.
+ */
+export const getEvaluationHistory = async (cursor = null, limit = 50, filters = {}) => {
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (cursor) params.set('cursor', cursor);
+    Object.entries(filters).forEach(([key, value]) => {
+        if (value) params.set(key, value);
+    });
+    const response = await fetch(`${API_BASE_URL}/ai/history?${params}`);
     if (!response.ok) throw new Error('Failed to fetch history.');
     return await response.json();
 };
 
+/**
+ * AI: Totals and filter options over the whole history ({ total, sent, pending, sections, teamCodes, docTypes })
+ */
+export const getEvaluationHistoryFacets = async () => {
+    const response = await fetch(`${API_BASE_URL}/ai/history/facets`);
+    if (!response.ok) throw new Error('Failed to fetch history filters.');
+    return await response.json();
+};
+
+/**
+ * AI: Ids of every file that has a saved evaluation
+ */
+export const getEvaluatedFileIds = async () => {
+    const response = await fetch(`${API_BASE_URL}/ai/history/file-ids`);
+    if (!response.ok) throw new Error('Failed to fetch evaluated files.');
+    return await response.json();
+};
+
+/**
+ * AI: Fetches a single evaluation record including the full report text
+ */
+export const getEvaluationDetail = async (id) => {
+    const response = await fetch(`${API_BASE_URL}/ai/history/${id}`);
+    if (!response.ok) throw new Error('Failed to fetch evaluation.');
+    return await response.json();
+};
+
 /**
  * SETTINGS: Fetch all dynamic configurations from Supabase
  */
@@ -73,12 +134,20 @@ export const updateSystemSetting = async (key, value) => {
     return data;
 };
 
-export const updateEvaluationResult = async (id, newResult, teacherFeedback) => {
+export const updateEvaluationResult = async (id, newResult, teacherFeedback, version) => {
     const response = await fetch(`${API_BASE_URL}/ai/history/${id}`, {
         method: 'PUT',
         headers: { 'Content-Type': 'application/json' },
-        body: JSON.stringify({ evaluationResult: newResult, teacherFeedback: teacherFeedback || '' })
+        body: JSON.stringify({
+            evaluationResult: newResult,
+            teacherFeedback: teacherFeedback || '',
+            ...(version != null && { version: String(version) })
+        })
     });
+    if (response.status === 409) {
+        const data = await response.json();
+        throw new Error(data.error || 'This evaluation was modified by someone else.');
+    }
     if (!response.ok) throw new Error('Failed to update evaluation.');
     return await response.json();
 };
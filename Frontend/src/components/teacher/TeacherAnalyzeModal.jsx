@@ -6,10 +6,10 @@ function TeacherAnalyzeModal({ isOpen, file, aiResult, isAnalyzing, onClose, onR
 
   const footer = hasResult ? (
     <div className="modal-actions modal-actions--end">
-      <button className="btn btn--openai" onClick={() => onRun('openai')}>
+      <button className="btn btn--openai" onClick={() => onRun('openai', true)}>
         Re-Evaluate (GPT)
       </button>
-      <button className="btn btn--gemini" onClick={() => onRun('openrouter')}>
+      <button className="btn btn--gemini" onClick={() => onRun('openrouter', true)}>
         Re-Evaluate (Gemini)
       </button>
     </div>
@@ -33,11 +33,15 @@ function TeacherAnalyzeModal({ isOpen, file, aiResult, isAnalyzing, onClose, onR
             <button className="btn btn--gemini" onClick={() => onRun('openrouter')}>
               Gemini
             </button>
+            <button className="btn btn--primary" onClick={() => onRun('auto')}>
+              Auto (Fastest Available)
+            </button>
           </div>
         </div>
       )}
 
-      {isAnalyzing && <p className="muted">Extracting text and running analysis...</p>}
+      {isAnalyzing && !aiResult && <p className="muted">Extracting text and running analysis...</p>}
+      {isAnalyzing && aiResult && <EvaluationReport text={aiResult}/>}
       {hasResult && <EvaluationReport text={aiResult}/>}
     </AppModal>
   );
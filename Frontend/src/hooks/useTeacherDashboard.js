@@ -1,7 +1,10 @@
-import { useEffect, useMemo, useState } from 'react';
+import { useEffect, useMemo, useRef, useState } from 'react';
 import {
-  analyzeSubmission,
+  analyzeSubmissionStreaming,
   fetchClassRoster,
+  fetchEvaluatedFileIds,
+  fetchHistoryDetail,
+  fetchHistoryFacets,
   fetchTeacherHistory,
   fetchTeacherSettings,
   fetchTeacherSubmissions,
@@ -31,14 +34,18 @@ export function useTeacherDashboard(showToast) {
 
   const [historyLogs, setHistoryLogs] = useState([]);
   const [loadingHistory, setLoadingHistory] = useState(false);
+  const [historyCursor, setHistoryCursor] = useState(null);
+  const [historyFacets, setHistoryFacets] = useState({ total: 0, sections: [], teamCodes: [], docTypes: [] });
+  const [evaluatedFileIds, setEvaluatedFileIds] = useState([]);
+  const historyRequest = useRef(0);
   const [selectedHistoryItem, setSelectedHistoryItem] = useState(null);
   const [isEditingReport, setIsEditingReport] = useState(false);
   const [editedReportText, setEditedReportText] = useState('');
   const [editedTeacherFeedback, setEditedTeacherFeedback] = useState('');
   const [reportSearchQuery, setReportSearchQuery] = useState('');
+  const [debouncedReportSearch, setDebouncedReportSearch] = useState('');
   const [reportStatusFilter, setReportStatusFilter] = useState('');
   const [reportDocTypeFilter, setReportDocTypeFilter] = useState('');
-  const [reportSelectedStudent, setReportSelectedStudent] = useState('');
   const [reportSelectedSection, setReportSelectedSection] = useState('');
   const [reportSelectedTeamCode, setReportSelectedTeamCode] = useState('');
 
@@ -62,16 +69,58 @@ export function useTeacherDashboard(showToast) {
     }
   }
 
+  // The server filters the history, so every page (and the cursor after it) belongs to these filters
+  const historyFilters = useMemo(
+    () => ({
+      status: reportStatusFilter,
+      docType: reportDocTypeFilter,
+      section: reportSelectedSection,
+      teamCode: reportSelectedTeamCode,
+      q: debouncedReportSearch.trim(),
+    }),
+    [reportStatusFilter, reportDocTypeFilter, reportSelectedSection, reportSelectedTeamCode, debouncedReportSearch],
+  );
+
   async function loadHistory() {
+    // Filters can change while a request is out; only the latest request may update the list
+    const request = ++historyRequest.current;
+    try {
+      setLoadingHistory(true);
+      setError('');
+      const [page, facets] = await Promise.all([fetchTeacherHistory(null, historyFilters), fetchHistoryFacets()]);
+      if (request !== historyRequest.current) return;
+      setHistoryLogs(page.items);
+      setHistoryCursor(page.nextCursor);
+      setHistoryFacets(facets);
+    } catch (err) {
+      if (request === historyRequest.current) setError(`Failed to load history: ${err.message}`);
+    } finally {
+      if (request === historyRequest.current) setLoadingHistory(false);
+    }
+  }
+
+  async function loadMoreHistory() {
+    if (!historyCursor) return;
+    const request = ++historyRequest.current;
     try {
       setLoadingHistory(true);
       setError('');
-      const data = await fetchTeacherHistory();
-      setHistoryLogs(data);
+      const page = await fetchTeacherHistory(historyCursor, historyFilters);
+      if (request !== historyRequest.current) return;
+      setHistoryLogs((prev) => [...prev, ...page.items]);
+      setHistoryCursor(page.nextCursor);
     } catch (err) {
-      setError(`Failed to load history: ${err.message}`);
+      if (request === historyRequest.current) setError(`Failed to load history: ${err.message}`);
     } finally {
-      setLoadingHistory(false);
+      if (request === historyRequest.current) setLoadingHistory(false);
+    }
+  }
+
+  async function loadEvaluatedFileIds() {
+    try {
+      setEvaluatedFileIds(await fetchEvaluatedFileIds());
+    } catch (err) {
+      setError(`Failed to load evaluated files: ${err.message}`);
     }
   }
 
@@ -89,16 +138,14 @@ export function useTeacherDashboard(showToast) {
     }
   }
 
-  const analyzedFileIds = useMemo(() => {
-    return new Set(historyLogs.map((h) => h.fileId));
-  }, [historyLogs]);
+  // Every evaluated file, not just the ones on the loaded history pages
+  const analyzedFileIds = useMemo(() => new Set(evaluatedFileIds), [evaluatedFileIds]);
 
   useEffect(() => {
     if (currentView === 'submissions') {
       loadSubmissions();
-      loadHistory();
+      loadEvaluatedFileIds();
     }
-    if (currentView === 'reports') loadHistory();
     if (currentView === 'settings') loadSettings();
     // Fetch roster for any view that needs section/team filters
     if (currentView === 'submissions' || currentView === 'reports') {
@@ -106,6 +153,15 @@ export function useTeacherDashboard(showToast) {
     }
   }, [currentView]);
 
+  useEffect(() => {
+    const timer = setTimeout(() => setDebouncedReportSearch(reportSearchQuery), 300);
+    return () => clearTimeout(timer);
+  }, [reportSearchQuery]);
+
+  useEffect(() => {
+    if (currentView === 'reports') loadHistory();
+  }, [currentView, historyFilters]);
+
   const filterOptions = useMemo(() => {
     const base = buildFilterOptions(files);
     if (roster.length > 0) {
@@ -190,84 +246,20 @@ export function useTeacherDashboard(showToast) {
     };
   }, [files, roster, selectedSection, selectedTeamCode, searchQuery]);
 
-  const reportDocTypeOptions = useMemo(
-    () =>
-      [...new Set(historyLogs.map((item) => extractSubmissionMeta(item.fileName).documentType).filter(Boolean))]
-        .sort((a, b) => a.localeCompare(b)),
-    [historyLogs],
-  );
+  const reportDocTypeOptions = historyFacets.docTypes;
 
   const reportFilterOptions = useMemo(() => {
-    const students = new Set();
-    const sections = new Set();
-    const teamCodes = new Set();
-
-    historyLogs.forEach((item) => {
-      const meta = extractSubmissionMeta(item.fileName);
-      if (meta.studentName) students.add(meta.studentName);
-      if (meta.section) sections.add(meta.section);
-      if (meta.teamCode) teamCodes.add(meta.teamCode);
-    });
-
     // Use roster as source of truth for sections and team codes when available
     if (roster.length > 0) {
       const rosterSections = [...new Set(roster.map((s) => s.section).filter(Boolean))].sort((a, b) => a.localeCompare(b));
       const rosterTeamCodes = [...new Set(roster.map((s) => s.groupCode).filter(Boolean))].sort((a, b) => a.localeCompare(b));
-      return {
-        students: [...students].sort((a, b) => a.localeCompare(b)),
-        sections: rosterSections,
-        teamCodes: rosterTeamCodes,
-      };
+      return { sections: rosterSections, teamCodes: rosterTeamCodes };
     }
 
-    return {
-      students: [...students].sort((a, b) => a.localeCompare(b)),
-      sections: [...sections].sort((a, b) => a.localeCompare(b)),
-      teamCodes: [...teamCodes].sort((a, b) => a.localeCompare(b)),
-    };
-  }, [historyLogs, roster]);
-
-  const filteredHistoryLogs = useMemo(() => {
-    const query = reportSearchQuery.trim().toLowerCase();
-
-    return historyLogs.filter((log) => {
-      const docType = extractSubmissionMeta(log.fileName).documentType;
-      const meta = extractSubmissionMeta(log.fileName);
-
-      if (reportStatusFilter === 'sent' && !log.isSent) return false;
-      if (reportStatusFilter === 'pending' && log.isSent) return false;
-      if (reportDocTypeFilter && docType !== reportDocTypeFilter) return false;
-      if (reportSelectedStudent && meta.studentName !== reportSelectedStudent) return false;
-      if (reportSelectedSection && meta.section !== normalizeSection(reportSelectedSection)) return false;
-      if (reportSelectedTeamCode && meta.teamCode !== reportSelectedTeamCode.toUpperCase()) return false;
-
-      if (query) {
-        const searchable = [
-          log.fileName,
-          log.isSent ? 'sent' : 'pending',
-          log.evaluatedAt,
-        ]
-          .filter(Boolean)
-          .join(' ')
-          .toLowerCase();
-
-        if (!searchable.includes(query)) return false;
-      }
-
-      return true;
-    });
-  }, [
-    historyLogs,
-    reportSearchQuery,
-    reportStatusFilter,
-    reportDocTypeFilter,
-    reportSelectedStudent,
-    reportSelectedSection,
-    reportSelectedTeamCode,
-  ]);
+    return { sections: historyFacets.sections, teamCodes: historyFacets.teamCodes };
+  }, [historyFacets, roster]);
 
   function clearReportFilters() {
-    setReportSelectedStudent('');
     setReportSelectedSection('');
     setReportSelectedTeamCode('');
     setReportStatusFilter('');
@@ -309,13 +301,17 @@ export function useTeacherDashboard(showToast) {
     setIsAnalyzeOpen(true);
   }
 
-  async function runAnalysis(modelName) {
+  async function runAnalysis(modelName, force = false) {
     if (!selectedFile) return;
     try {
       setIsAnalyzing(true);
       setAiResult('');
-      const data = await analyzeSubmission(selectedFile.id, selectedFile.name, modelName);
-      setAiResult(data.analysis || data);
+      // Show the report as it is written; the final text replaces the streamed pieces
+      const analysis = await analyzeSubmissionStreaming(selectedFile.id, selectedFile.name, modelName, (token) => {
+        setAiResult((prev) => prev + token);
+      }, force);
+      setAiResult(analysis);
+      loadEvaluatedFileIds();
       if (currentView === 'reports') loadHistory();
     } catch (err) {
       setAiResult(`Error: ${err.message}`);
@@ -324,19 +320,31 @@ export function useTeacherDashboard(showToast) {
     }
   }
 
-  function startEditingHistory(item) {
-    setSelectedHistoryItem(item);
-    setEditedReportText(item.evaluationResult);
-    setEditedTeacherFeedback(item.teacherFeedback || '');
-    setIsEditingReport(false);
-    console.log(item);
+  async function startEditingHistory(item) {
+    try {
+      // The list only carries summaries; the report text is fetched when a row is opened
+      const detail = await fetchHistoryDetail(item.id);
+      setSelectedHistoryItem(detail);
+      setEditedReportText(detail.evaluationResult);
+      setEditedTeacherFeedback(detail.teacherFeedback || '');
+      setIsEditingReport(false);
+    } catch (err) {
+      setError(`Failed to open evaluation: ${err.message}`);
+    }
   }
 
   async function saveEditedHistory() {
     if (!selectedHistoryItem) return;
     try {
-      await saveEvaluation(selectedHistoryItem.id, editedReportText, editedTeacherFeedback);
-      const updated = { ...selectedHistoryItem, evaluationResult: editedReportText, teacherFeedback: editedTeacherFeedback };
+      const saved = await saveEvaluation(
+        selectedHistoryItem.id, editedReportText, editedTeacherFeedback, selectedHistoryItem.version
+      );
+      const updated = {
+        ...selectedHistoryItem,
+        evaluationResult: editedReportText,
+        teacherFeedback: editedTeacherFeedback,
+        version: saved.version,
+      };
       setSelectedHistoryItem(updated);
       setHistoryLogs((prev) => prev.map((log) => (log.id === updated.id ? updated : log)));
       setIsEditingReport(false);
@@ -349,8 +357,8 @@ export function useTeacherDashboard(showToast) {
   async function sendHistoryToStudent() {
     if (!selectedHistoryItem) return;
     try {
-      await sendEvaluation(selectedHistoryItem.id);
-      const updated = { ...selectedHistoryItem, isSent: true };
+      const sent = await sendEvaluation(selectedHistoryItem.id);
+      const updated = { ...selectedHistoryItem, isSent: true, version: sent.version };
       setSelectedHistoryItem(updated);
       setHistoryLogs((prev) => prev.map((log) => (log.id === updated.id ? updated : log)));
       showToast('Result sent to Student Dashboard.', 'success');
@@ -398,17 +406,17 @@ export function useTeacherDashboard(showToast) {
     isSyncing,
     analyzedFileIds,
     error,
-    historyLogs: filteredHistoryLogs,
-    allHistoryCount: historyLogs.length,
+    historyLogs,
+    allHistoryCount: historyFacets.total,
     reportDocTypeOptions,
     reportFilterOptions,
     reportSearchQuery,
     reportStatusFilter,
     reportDocTypeFilter,
-    reportSelectedStudent,
     reportSelectedSection,
     reportSelectedTeamCode,
     loadingHistory,
+    hasMoreHistory: Boolean(historyCursor),
     settings,
     loadingSettings,
     editedSettings,
@@ -436,7 +444,6 @@ export function useTeacherDashboard(showToast) {
     setReportSearchQuery,
     setReportStatusFilter,
     setReportDocTypeFilter,
-    setReportSelectedStudent,
     setReportSelectedSection,
     setReportSelectedTeamCode,
     clearReportFilters,
@@ -444,6 +451,7 @@ export function useTeacherDashboard(showToast) {
     openAnalyzeModal,
     runAnalysis,
     loadHistory,
+    loadMoreHistory,
     startEditingHistory,
     saveEditedHistory,
     sendHistoryToStudent,
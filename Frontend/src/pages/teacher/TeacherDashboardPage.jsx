@@ -123,6 +123,12 @@ function TeacherDashboardPage() {
               loading={vm.loadingHistory}
               onView={vm.startEditingHistory}
             />
+
+            {vm.hasMoreHistory && (
+              <button className="btn btn--primary" onClick={vm.loadMoreHistory} disabled={vm.loadingHistory}>
+                Load More
+              </button>
+            )}
           </>
         )}
 
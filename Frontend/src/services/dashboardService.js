@@ -1,10 +1,14 @@
 import {
   analyzeDocumentWithAI,
   getClassRoster,
+  getEvaluatedFileIds,
+  getEvaluationDetail,
   getEvaluationHistory,
+  getEvaluationHistoryFacets,
   getStudentReports,
   getSystemSettings,
   sendEvaluationToStudent,
+  streamDocumentAnalysis,
   syncSubmissionsWithBackend,
   updateEvaluationResult,
   updateSystemSetting,
@@ -19,8 +23,20 @@ export async function fetchTeacherSubmissions() {
   return Array.from(new Map(data.map((item) => [item.id, item])).values());
 }
 
-export async function fetchTeacherHistory() {
-  return getEvaluationHistory();
+export async function fetchTeacherHistory(cursor = null, filters = {}) {
+  return getEvaluationHistory(cursor, 50, filters);
+}
+
+export async function fetchHistoryFacets() {
+  return getEvaluationHistoryFacets();
+}
+
+export async function fetchEvaluatedFileIds() {
+  return getEvaluatedFileIds();
+}
+
+export async function fetchHistoryDetail(id) {
+  return getEvaluationDetail(id);
 }
 
 export async function fetchTeacherSettings() {
@@ -31,12 +47,16 @@ export async function saveSetting(key, value) {
   return updateSystemSetting(key, value);
 }
 
-export async function analyzeSubmission(fileId, fileName, model) {
-  return analyzeDocumentWithAI(fileId, fileName, model);
+export async function analyzeSubmission(fileId, fileName, model, force = false) {
+  return analyzeDocumentWithAI(fileId, fileName, model, force);
+}
+
+export async function analyzeSubmissionStreaming(fileId, fileName, model, onToken, force = false) {
+  return streamDocumentAnalysis(fileId, fileName, model, onToken, force);
 }
 
-export async function saveEvaluation(id, text, teacherFeedback) {
-  return updateEvaluationResult(id, text, teacherFeedback);
+export async function saveEvaluation(id, text, teacherFeedback, version) {
+  return updateEvaluationResult(id, text, teacherFeedback, version);
 }
 
 export async function sendEvaluation(id) {